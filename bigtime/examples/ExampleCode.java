@@ -12,6 +12,7 @@ import bigtime.when.Calendar;
 import bigtime.when.Date;
 import bigtime.when.DateTime;
 import bigtime.when.JulianDate;
+import bigtime.when.Precision;
 import bigtime.when.Time;
 import bigtime.when.Timescale;
 import bigtime.when.TimescaleImpl;
@@ -141,6 +142,8 @@ public class ExampleCode {
     BigDecimal frac = a.fractionalDay(); //day and time-of-day as one number
     DateTime c = a.plusMinusDays(big(10), 4, HALF_EVEN);
     DateTime d = a.plusMinusSeconds(big(-62.132), 4, HALF_EVEN);
+    //keep all intermediate values to the precision you need, and no more
+    DateTime d2 = a.plusMinusSeconds(big(-62.132), Precision.seconds(4, HALF_EVEN));
     DateTime e = a.roundSeconds(3, HALF_EVEN);
     Optional<DateTime> f = e.convertTo(UT1);
     DateTime g = f.get(); //should work, the conversion is supported for this date
@@ -0,0 +1,68 @@
+package bigtime.simplejd;
+
+/**
+ Convert large batches of Julian day numbers to dates in the Gregorian calendar, and vice versa,
+ using only integer arithmetic.
+
+ <P>The Julian <em>day number</em> is the Julian date at 12h on a given day.
+ It's always an integer.
+ The results here match those of {@link JulianDateConvert} exactly.
+
+ <P>This is a branch-free scalar converter.
+ Each item in a batch goes through the same fixed sequence of <em>long</em> adds, multiplies and divides,
+ with no loops and no table lookups (the conditionals are simple selects).
+ It doesn't use SIMD instructions: the <em>long</em> divisions aren't vectorized by the JIT compiler.
+
+ <P>The algorithm shifts the origin of the calendar to March 1, year 0.
+ That puts the leap day at the <em>end</em> of each year.
+ It's then easy to count days in a 400-year cycle (an <em>era</em>).
+ With help from Howard Hinnant's algorithms: http://howardhinnant.github.io/date_algorithms.html
+*/
+public final class DayNumberBatch {
+
+  /**
+   Convert Julian day numbers to dates in the Gregorian calendar.
+   The outputs are parallel arrays, filled in by this method: element <em>i</em> of each
+   output array corresponds to <em>dayNumbers[i]</em>.
+  */
+  public static void toCal(int[] dayNumbers, int[] years, int[] months, int[] days) {
+    JulianDateConvert.checkSameLength(dayNumbers.length, years.length, months.length, days.length);
+    for(int i = 0; i < dayNumbers.length; ++i) {
+      long z = (long)dayNumbers[i] - MARCH_1_YEAR_0;  //days since March 1, year 0
+      long era = Math.floorDiv(z, CYCLE_DAYS);
+      long doe = z - era * CYCLE_DAYS;  // [0, 146096]
+      long yoe = (doe - doe/1460 + doe/36524 - doe/146096) / 365;  // [0, 399]
+      long doy = doe - (365*yoe + yoe/4 - yoe/100);  // [0, 365], starting March 1
+      long mp = (5*doy + 2)/153;  // [0, 11], starting with March
+      int month = (int)(mp < 10 ? mp + 3 : mp - 9);
+      years[i] = (int)(yoe + era * CYCLE_YEARS) + (month <= 2 ? 1 : 0);
+      months[i] = month;
+      days[i] = (int)(doy - (153*mp + 2)/5 + 1);
+    }
+  }
+
+  /**
+   Convert dates in the Gregorian calendar to Julian day numbers.
+   The inputs are parallel arrays: element <em>i</em> of each array refers to the same date.
+   @param dayNumbers output array, filled in by this method.
+   @throws ArithmeticException if a day number doesn't fit in an <em>int</em>.
+  */
+  public static void fromCal(int[] years, int[] months, int[] days, int[] dayNumbers) {
+    JulianDateConvert.checkSameLength(years.length, months.length, days.length, dayNumbers.length);
+    for(int i = 0; i < years.length; ++i) {
+      int m = months[i];
+      long y = (long)years[i] - (m <= 2 ? 1 : 0);  // January and February belong to the preceding year here
+      long era = Math.floorDiv(y, CYCLE_YEARS);
+      long yoe = y - era * CYCLE_YEARS;  // [0, 399]
+      long doy = (153*(m > 2 ? m - 3 : m + 9) + 2)/5 + days[i] - 1;  // [0, 365]
+      long doe = yoe * 365 + yoe/4 - yoe/100 + doy;  // [0, 146096]
+      dayNumbers[i] = Math.toIntExact(era * CYCLE_DAYS + doe + MARCH_1_YEAR_0);
+    }
+  }
+
+  /** The Julian day number of March 1, year 0, in the Gregorian calendar: {@value}. */
+  static final int MARCH_1_YEAR_0 = 1_721_120;
+
+  private static final int CYCLE_YEARS = 400;
+  private static final int CYCLE_DAYS = 146_097;
+}
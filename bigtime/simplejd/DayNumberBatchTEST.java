@@ -0,0 +1,72 @@
+package bigtime.simplejd;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Unit tests. Uses JUnit 4. */
+public final class DayNumberBatchTEST {
+
+  /** Every day in a span of several 400-year cycles, on both sides of JD 0. */
+  @Test public void matchesJulianDateConvert() {
+    int start = -800_000;
+    int size = 4_000_000;
+    int[] dayNumbers = new int[size];
+    for(int i = 0; i < size; ++i) {
+      dayNumbers[i] = start + i;
+    }
+    int[] years = new int[size];
+    int[] months = new int[size];
+    int[] days = new int[size];
+    DayNumberBatch.toCal(dayNumbers, years, months, days);
+    
+    int[] roundTrip = new int[size];
+    DayNumberBatch.fromCal(years, months, days, roundTrip);
+    for(int i = 0; i < size; ++i) {
+      JulianDateConvert.DateStruct expected = JulianDateConvert.jdToCal(dayNumbers[i]); //12h has an integral JD
+      assertEquals(expected.y, years[i]);
+      assertEquals(expected.m, months[i]);
+      assertEquals(expected.d, days[i] + 0.5, 0.0);
+      assertEquals(dayNumbers[i], roundTrip[i]);
+    }
+  }
+  
+  @Test public void specificCases() {
+    testDate(2000, 1, 1, 2451545); //J2000
+    testDate(-4713, 11, 24, 0); //the JD=0 date
+    testDate(-4713, 11, 23, -1);
+    testDate(1600, 3, 1, 2305447 + 60 + 1); 
+    testDate(1900, 3, 1, 2415020 + 59 + 1);
+  }
+
+  @Test public void fails() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      DayNumberBatch.toCal(new int[2], new int[2], new int[1], new int[2]);
+    });
+  }
+  
+  /** The whole range of int day numbers, with no overflow at the ends. */
+  @Test public void extremes() {
+    int[] dayNumbers = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+    int[] years = new int[4], months = new int[4], days = new int[4];
+    DayNumberBatch.toCal(dayNumbers, years, months, days);
+    assertTrue(years[0] < -5_000_000 && years[3] > 5_000_000);
+    int[] res = new int[4];
+    DayNumberBatch.fromCal(years, months, days, res);
+    assertArrayEquals(dayNumbers, res);
+    assertThrows(ArithmeticException.class, () -> {
+      DayNumberBatch.fromCal(new int[] {Integer.MAX_VALUE}, new int[] {1}, new int[] {1}, new int[1]);
+    });
+  }
+  
+  private void testDate(int y, int m, int d, int dayNumber) {
+    int[] res = new int[1];
+    DayNumberBatch.fromCal(new int[] {y}, new int[] {m}, new int[] {d}, res);
+    assertEquals(dayNumber, res[0]);
+    
+    int[] years = new int[1], months = new int[1], days = new int[1];
+    DayNumberBatch.toCal(new int[] {dayNumber}, years, months, days);
+    assertEquals(y, years[0]);
+    assertEquals(m, months[0]);
+    assertEquals(d, days[0]);
+  }
+}
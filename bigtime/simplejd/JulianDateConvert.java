@@ -1,22 +1,30 @@
 package bigtime.simplejd;
 
-import java.time.Month;
-import java.time.Year;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import bigtime.when.Calendar;
 
 /** 
- Convert between dates in the Gregorian calendar and Julian dates, and vice versa.
+ Convert between dates in the Gregorian or Julian calendar and Julian dates, and vice versa.
  
  There's no restriction on the Julian date being non-negative.
  
- <P>(I would have preferred using long instead of int for the year. 
- But Java's date-time packages use int for the year, so I'll go with that.)
+ <P>This is the same algorithm as the one in the <em>bigtime.when</em> package, but using 
+ only primitives: <em>long</em> for the year, and <em>double</em> for the day and the Julian date.
+ Leap years use the same rules as {@link Calendar#isLeap(long)}.
+ Use this class when you need speed, and don't need arbitrary precision. 
+ 
+ <P>Remember that a <em>double</em> can't represent a Julian date with better than 
+ <a href='https://aa.usno.navy.mil/downloads/novas/USNOAA-TN2011-02.pdf'>~20 microseconds</a> 
+ of precision, in the current era.
 */
 public final class JulianDateConvert {
 
   /**
-   Convert a date in the Gregorian calendar to a Julian date. 
+   Convert a date in the given calendar to a Julian date. 
    
    With help from Robin O'Leary's algorithm: https://pdc.ro.nu/jd-code.html
    
@@ -24,45 +32,126 @@ public final class JulianDateConvert {
    Then I simply re-base the result at the end, to reflect the usual 
    origin-day for Julian dates. This exploits the (near) symmetry of 
    the calendar cycles.
+   @throws DateTimeException if the month is not in the range [1,12].
   */
-  static double calToJd(int y, int m, double d) {
+  static double calToJd(long y, int m, double d, Calendar calendar) {
+    if (m < 1 || m > 12) {
+      throw new DateTimeException("Invalid value for MonthOfYear: " + m); //as in Month.of
+    }
     //completed years: small asymmetry between positive and negative years
-    int y_p = (y >= 0) ? (y - 1) : y;  //y_p = y-prime
-    int num_366yrs = (y_p/4) - (y_p/100) + (y_p/CYCLE_YEARS); //Robin's clever trick
+    long y_p = (y >= 0) ? (y - 1) : y;  //y_p = y-prime
+    long num_366yrs = (y_p/4);
+    if (Calendar.GREGORIAN == calendar) {
+      num_366yrs = num_366yrs - (y_p/100) + (y_p/GREGORIAN_CYCLE_YEARS); //Robin's clever trick
+    }
     if (y > 0) {
       num_366yrs += 1; //since year 0 is a leap year
     }
-    int num_365yrs = y - num_366yrs;
+    long num_365yrs = y - num_366yrs;
     double res = num_365yrs * SHORT_YR + num_366yrs * LONG_YR;    
     
     //completed months
-    res += DAYS_IN_PRECEDING_MONTHS.get(Month.of(m));   
-    res += (isLeap(y) && (m - 1) >= 2 ? 1 : 0); //'correct' for leap years  
+    res += DAYS_IN_PRECEDING_MONTHS[m];   
+    res += (calendar.isLeap(y) && (m - 1) >= 2 ? 1 : 0); //'correct' for leap years  
     
     res += d;  // the day of the month
     
     //rebase to the usual origin of Julian date
-    res += JAN_0_YEAR_0;   
+    res += jan0Year0(calendar);   
     return res;
   }
   
+  /** As in {@link #calToJd(long, int, double, Calendar)}, for the Gregorian calendar. */
+  static double calToJd(long y, int m, double d) {
+    return calToJd(y, m, d, Calendar.GREGORIAN);
+  }
+  
   /**
-   Convert a Julian date to a date in the Gregorian calendar.
+   Convert a Julian date to a date in the given calendar.
      
-   Mental model: use a 'base', a point in time occurring once every 400 years, 
-   at which the calendar cycle starts. Counting forward in time from such any 
-   such base exploits the symmetry of the calendar's cycle. Let's take a base 
-   as always falling on a N*400 years from January 1.0, year 0:
+   Mental model: use a 'base', a point in time occurring once every cycle of the calendar 
+   (400 years for the Gregorian calendar), at which the calendar cycle starts. 
+   Counting forward in time from such any such base exploits the symmetry of the calendar's cycle. 
+   Let's take a base as always falling on a N*400 years from January 1.0, year 0 (Gregorian calendar):
     
     <pre>JD of a base = 1_721_059.5 + N * 146_097  N = ...-2,-1,0,1,2,...</pre>
       
    There are 2 loops here, with a max number of 14 loop iterations (not much).
   */
+  static DateStruct jdToCal(double jd, Calendar calendar) {
+    DateStruct res = new DateStruct(0, 0, 0.0);
+    jdToCal(jd, calendar, res);
+    return res;
+  }
+
+  /** As in {@link #jdToCal(double, Calendar)}, for the Gregorian calendar. */
   static DateStruct jdToCal(double jd) {
+    return jdToCal(jd, Calendar.GREGORIAN);
+  }
+
+  /**
+   Convert many dates in the given calendar to Julian dates, in one call.
+   The inputs are passed as parallel arrays (a 'struct-of-arrays'): element <em>i</em> of each array 
+   refers to the same date.
+   
+   <P>Large arrays are split into segments, which are converted in parallel using the given {@link ForkJoinPool}. 
+   @param jds output array, filled in by this method. 
+  */
+  public static void calToJd(long[] years, int[] months, double[] days, double[] jds, Calendar calendar, ForkJoinPool pool) {
+    checkSameLength(years.length, months.length, days.length, jds.length);
+    pool.invoke(new CalToJdTask(years, months, days, jds, calendar, 0, years.length));
+  }
+
+  /** As in {@link #calToJd(long[], int[], double[], double[], Calendar, ForkJoinPool)}, using the common {@link ForkJoinPool}. */
+  public static void calToJd(long[] years, int[] months, double[] days, double[] jds, Calendar calendar) {
+    calToJd(years, months, days, jds, calendar, ForkJoinPool.commonPool());
+  }
+
+  /** As in {@link #calToJd(long[], int[], double[], double[], Calendar, ForkJoinPool)}, for the Gregorian calendar and the common {@link ForkJoinPool}. */
+  public static void calToJd(long[] years, int[] months, double[] days, double[] jds) {
+    calToJd(years, months, days, jds, Calendar.GREGORIAN, ForkJoinPool.commonPool());
+  }
+
+  /**
+   Convert many Julian dates to dates in the given calendar, in one call.
+   The outputs are parallel arrays, filled in by this method: element <em>i</em> of each 
+   output array corresponds to <em>jds[i]</em>.
+   
+   <P>No {@link DateStruct} is created for each Julian date.
+   Large arrays are split into segments, which are converted in parallel using the given {@link ForkJoinPool}. 
+  */
+  public static void jdToCal(double[] jds, long[] years, int[] months, double[] days, Calendar calendar, ForkJoinPool pool) {
+    checkSameLength(jds.length, years.length, months.length, days.length);
+    pool.invoke(new JdToCalTask(jds, years, months, days, calendar, 0, jds.length));
+  }
+  
+  /** As in {@link #jdToCal(double[], long[], int[], double[], Calendar, ForkJoinPool)}, using the common {@link ForkJoinPool}. */
+  public static void jdToCal(double[] jds, long[] years, int[] months, double[] days, Calendar calendar) {
+    jdToCal(jds, years, months, days, calendar, ForkJoinPool.commonPool());
+  }
+  
+  /** As in {@link #jdToCal(double[], long[], int[], double[], Calendar, ForkJoinPool)}, for the Gregorian calendar and the common {@link ForkJoinPool}. */
+  public static void jdToCal(double[] jds, long[] years, int[] months, double[] days) {
+    jdToCal(jds, years, months, days, Calendar.GREGORIAN, ForkJoinPool.commonPool());
+  }
+  
+  /** 
+   Arrays smaller than this are converted in a single thread - {@value}.
+   Each conversion is cheap, so a segment needs to be fairly large to pay for the cost of forking a task.
+  */
+  static final int SEQUENTIAL_THRESHOLD = 8 * 1024;
+
+  /** Convert the given Julian date, and place the result in the given (re-usable) struct. */
+  private static void jdToCal(double jd, Calendar calendar, DateStruct res) {
+    boolean isGregorian = Calendar.GREGORIAN == calendar;
+    int cycle_years = isGregorian ? GREGORIAN_CYCLE_YEARS : JULIAN_CYCLE_YEARS;
+    int cycle_days = isGregorian ? GREGORIAN_CYCLE_DAYS : JULIAN_CYCLE_DAYS;
+    double jan_1_year_0 = jan0Year0(calendar) + 1.0;
+    
     //1. find the closest base that PRECEDES the given moment
-    int num_cycles = (int)Math.floor((jd - JAN_1_YEAR_0)/CYCLE_DAYS); //rounds towards negative infinity: good!
-    double base_jd = JAN_1_YEAR_0 + num_cycles * CYCLE_DAYS; //a January 1.0 in the years  ..., -800, -400, 0, 400, 800, ... 
-    int year = num_cycles * CYCLE_YEARS; // ...,-400, 0, 400,... (the starting value)
+    long num_cycles = (long)Math.floor((jd - jan_1_year_0)/cycle_days); //rounds towards negative infinity: good!
+    double base_jd = jan_1_year_0 + num_cycles * cycle_days; //a January 1.0 in the years  ..., -800, -400, 0, 400, 800, ... 
+    long year = num_cycles * cycle_years; // ...,-400, 0, 400,... (the starting value)
     double jd_minus_base = jd - base_jd; //never neg
     double cursor = 0.0; //points to a Jan 1.0 initially; approaches jd_minus_base from below!
     
@@ -72,14 +161,17 @@ public final class JulianDateConvert {
     int more_years = (approx_days / LONG_YR) - 1; // at least this many
     if (more_years > 0) {
       int m_p = more_years - 1;
-      int more_days = more_years * SHORT_YR + (m_p/4) - (m_p/100) + (m_p/400) + 1;
+      int more_days = more_years * SHORT_YR + (m_p/4) + 1;
+      if (isGregorian) {
+        more_days = more_days - (m_p/100) + (m_p/400);
+      }
       cursor += more_days; //still on a Jan 1.0!
       year += more_years;
     }
     //loop to find the rest of the remaining-years: at most 2 iterations here!
-    int year_so_far = year; //for use in the loop 
-    for(int more = 0; more < CYCLE_YEARS; ++more ) { 
-      int year_length = isLeap(year_so_far + more) ? LONG_YR : SHORT_YR;
+    long year_so_far = year; //for use in the loop 
+    for(int more = 0; more < cycle_years; ++more ) { 
+      int year_length = calendar.isLeap(year_so_far + more) ? LONG_YR : SHORT_YR;
       if (cursor + year_length <= jd_minus_base) {
         cursor += year_length; // Jan 1.0 of the next year
         ++year;
@@ -89,8 +181,9 @@ public final class JulianDateConvert {
     //3. months and days
     int month = 0; //both a loop index AND a result-value
     double fractional_days = 0.0;
+    boolean isLeap = calendar.isLeap(year);
     for(month = 1; month <= 12; ++month) {
-      int month_length = Month.of(month).length(isLeap(year));
+      int month_length = MONTH_LENGTHS[month] + (isLeap && month == 2 ? 1 : 0);
       if (cursor + month_length <= jd_minus_base) {
         cursor += month_length; //1st day of the next month
       }
@@ -98,55 +191,138 @@ public final class JulianDateConvert {
         fractional_days = jd_minus_base - cursor + 1.0; break;
       }
     }
-    return new DateStruct(year, month, fractional_days);
+    res.y = year; 
+    res.m = month;
+    res.d = fractional_days;
   }
 
   /** 
    This little guy plays well with the algorithm, since it models the day-as-double.
-   In practice, you would almost always move this info into Java's standard date-time classes. 
+   In practice, you would almost always move this info into Java's standard date-time classes, 
+   or into the classes of the <em>bigtime.when</em> package. 
   */
   static final class DateStruct {
-    DateStruct(int y, int m, double d){
+    DateStruct(long y, int m, double d){
       this.y = y; this.m = m; this.d = d;
     }
-    int y, m; 
+    long y;
+    int m; 
     double d;
   }
 
   /**
-   The Julian date of December 31.0, in the year -1. 
+   The Julian date of December 31.0, in the year -1, in the Gregorian calendar. 
    January 0 is an alias for December 31 of the previous year. 
   */
   static final double JAN_0_YEAR_0 = 1_721_058.5;
   
-  private static boolean isLeap(int y) {
-    return Year.of(y).isLeap();
+  /** As in {@link #JAN_0_YEAR_0}, but for the Julian calendar. */
+  static final double JAN_0_YEAR_0_JULIAN = 1_721_056.5;
+  
+  /** Convert the items in the range [from, to) of the input arrays. Splits itself in two, if the range is large. */
+  private static final class CalToJdTask extends RecursiveAction {
+    CalToJdTask(long[] years, int[] months, double[] days, double[] jds, Calendar calendar, int from, int to){
+      this.years = years; this.months = months; this.days = days; this.jds = jds;
+      this.calendar = calendar; this.from = from; this.to = to;
+    }
+    @Override protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        for(int i = from; i < to; ++i) {
+          jds[i] = calToJd(years[i], months[i], days[i], calendar);
+        }
+      }
+      else {
+        int mid = (from + to) >>> 1;
+        invokeAll(
+          new CalToJdTask(years, months, days, jds, calendar, from, mid), 
+          new CalToJdTask(years, months, days, jds, calendar, mid, to)
+        );
+      }
+    }
+    private static final long serialVersionUID = 1L;
+    private final long[] years;
+    private final int[] months;
+    private final double[] days, jds;
+    private final Calendar calendar;
+    private final int from, to;
+  }
+  
+  /** Convert the items in the range [from, to) of the input array. Splits itself in two, if the range is large. */
+  private static final class JdToCalTask extends RecursiveAction {
+    JdToCalTask(double[] jds, long[] years, int[] months, double[] days, Calendar calendar, int from, int to){
+      this.jds = jds; this.years = years; this.months = months; this.days = days;
+      this.calendar = calendar; this.from = from; this.to = to;
+    }
+    @Override protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        DateStruct date = new DateStruct(0, 0, 0.0); //one per segment, not one per item
+        for(int i = from; i < to; ++i) {
+          jdToCal(jds[i], calendar, date);
+          years[i] = date.y;
+          months[i] = date.m;
+          days[i] = date.d;
+        }
+      }
+      else {
+        int mid = (from + to) >>> 1;
+        invokeAll(
+          new JdToCalTask(jds, years, months, days, calendar, from, mid), 
+          new JdToCalTask(jds, years, months, days, calendar, mid, to)
+        );
+      }
+    }
+    private static final long serialVersionUID = 1L;
+    private final double[] jds, days;
+    private final long[] years;
+    private final int[] months;
+    private final Calendar calendar;
+    private final int from, to;
+  }
+  
+  /** Shared with {@link DayNumberBatch}. */
+  static void checkSameLength(int... lengths) {
+    for(int length : lengths) {
+      if (length != lengths[0]) {
+        throw new IllegalArgumentException("Arrays must have the same length. Lengths passed: " + Arrays.toString(lengths));
+      }
+    }
+  }
+  
+  private static double jan0Year0(Calendar calendar) {
+    return Calendar.GREGORIAN == calendar ? JAN_0_YEAR_0 : JAN_0_YEAR_0_JULIAN;
   }
 
-  private static final int SHORT_YR = 365;
-  private static final int LONG_YR = 366;
-  private static final int CYCLE_YEARS = 400;
-  private static final double JAN_1_YEAR_0 = JAN_0_YEAR_0 + 1.0;
-  private static final int CYCLE_DAYS = 
-    SHORT_YR * CYCLE_YEARS 
-    + CYCLE_YEARS/4 
-    - CYCLE_YEARS/100 
-    + CYCLE_YEARS/CYCLE_YEARS
+  private static final int SHORT_YR = Calendar.SHORT_YEAR;
+  private static final int LONG_YR = Calendar.LONG_YEAR;
+  private static final int GREGORIAN_CYCLE_YEARS = 400;
+  private static final int GREGORIAN_CYCLE_DAYS = 
+    SHORT_YR * GREGORIAN_CYCLE_YEARS 
+    + GREGORIAN_CYCLE_YEARS/4 
+    - GREGORIAN_CYCLE_YEARS/100 
+    + GREGORIAN_CYCLE_YEARS/GREGORIAN_CYCLE_YEARS
   ; //146_097 days
+  private static final int JULIAN_CYCLE_YEARS = 4;
+  private static final int JULIAN_CYCLE_DAYS = SHORT_YR * JULIAN_CYCLE_YEARS + 1; //1_461 days
+
+  /** 
+   Lengths of the months in a non-leap year, indexed by the month 1..12 (index 0 is not used). 
+   A plain array avoids the boxing and look-ups of a map keyed by {@link java.time.Month}. 
+  */
+  private static final int[] MONTH_LENGTHS = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
 
   /** 
-   For a non-leap year: Jan=0, Feb=31, Mar=59, ...
+   For a non-leap year: Jan=0, Feb=31, Mar=59, ..., indexed by the month 1..12 (index 0 is not used).
    I didn't want to hard-code these numbers, as I did in the C implementation.  
   */
-  private static final Map<Month, Integer> DAYS_IN_PRECEDING_MONTHS = daysInPrecedingMonths();
+  private static final int[] DAYS_IN_PRECEDING_MONTHS = daysInPrecedingMonths();
   
-  private static Map<Month, Integer> daysInPrecedingMonths() {
+  private static int[] daysInPrecedingMonths() {
     int accumulator = 0;
-    Map<Month, Integer> res = new LinkedHashMap<>();
-    for(Month month : Month.values()) {
-      res.put(month, accumulator);
-      accumulator += month.length(false);
+    int[] res = new int[13];
+    for(int month = 1; month <= 12; ++month) {
+      res[month] = accumulator;
+      accumulator += MONTH_LENGTHS[month];
     }
     return res;
   }
-}
\ No newline at end of file
+}
@@ -3,9 +3,16 @@ package bigtime.simplejd;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import static bigtime.when.Calendar.*;
+
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.Year;
 
+import bigtime.when.Calendar;
+import bigtime.when.Date;
+import bigtime.when.TimescaleImpl;
+
 /** Unit tests. Uses JUnit 4. */
 public final class JulianDateConvertTEST {
 
@@ -85,6 +92,105 @@ public final class JulianDateConvertTEST {
     testDate(-4900, 1, 1.5, -327.0 - 365 * (75.0 + 66.0) - 366 * (24.0 + 22.0)); //not a leap year
   }
   
+  @Test public void bulk() {
+    //large enough to be split across threads
+    int size = 3 * JulianDateConvert.SEQUENTIAL_THRESHOLD + 17;
+    long[] years = new long[size];
+    int[] months = new int[size];
+    double[] days = new double[size];
+    LocalDate day = LocalDate.of(-1000, 1, 1);
+    for(int i = 0; i < size; ++i) {
+      years[i] = day.getYear();
+      months[i] = day.getMonthValue();
+      days[i] = day.getDayOfMonth() + 0.25;
+      day = day.plusDays(53);
+    }
+    double[] jds = new double[size];
+    JulianDateConvert.calToJd(years, months, days, jds);
+    
+    long[] yearsBack = new long[size];
+    int[] monthsBack = new int[size];
+    double[] daysBack = new double[size];
+    JulianDateConvert.jdToCal(jds, yearsBack, monthsBack, daysBack);
+    for(int i = 0; i < size; ++i) {
+      assertEquals(JulianDateConvert.calToJd(years[i], months[i], days[i]), jds[i], 0.0);
+      assertEquals(years[i], yearsBack[i]);
+      assertEquals(months[i], monthsBack[i]);
+      assertEquals(days[i], daysBack[i], 0.000000001);
+    }
+  }
+  
+  @Test public void julianCalendar() {
+    //Meeus 1991, page 61 and 62
+    testDate(333, 1, 27.5, 1842713.0, JULIAN);
+    testDate(837, 4, 10.3, 2026871.8, JULIAN);
+    testDate(-1000, 7, 12.5, 1356001.0, JULIAN);
+    testDate(-1000, 2, 29.0, 1355866.5, JULIAN);
+    testDate(-1001, 8, 17.9, 1355671.4, JULIAN); 
+    testDate(-4712, 1, 1.5, 0.0, JULIAN);
+    testDate(-4713, 12, 31.0, -1.5, JULIAN);
+    //Explanatory Supplement 1961, p.437: these are all leap years
+    testDate(1500, 3, 1, 2268932 + 0.5 + 60, JULIAN);
+    testDate(1700, 3, 1, 2341982 + 0.5 + 60, JULIAN);
+    testDate(1900, 3, 1, 2415032 + 0.5 + 60, JULIAN);
+  }
+  
+  /** The primitive engine agrees with the BigDecimal engine. */
+  @Test public void sameAsBigDecimalEngine() {
+    for(Calendar calendar : Calendar.values()) {
+      for(long year = -2001; year <= 2001; year += 7) {
+        for(int month = 1; month <= 12; ++month) {
+          double expected = Date.from(year, month, 28, calendar).jd(TimescaleImpl.TT).jd().doubleValue();
+          testDate(year, month, 28.0, expected, calendar);
+        }
+      }
+    }
+  }
+  
+  @Test public void longYears() {
+    long year = 40_000_000_000L;
+    for(Calendar calendar : Calendar.values()) {
+      double jd = JulianDateConvert.calToJd(year, 3, 1.5, calendar);
+      JulianDateConvert.DateStruct date = JulianDateConvert.jdToCal(jd, calendar);
+      assertEquals(year, date.y);
+      assertEquals(3, date.m);
+      assertEquals(1.5, date.d, 0.0);
+      
+      jd = JulianDateConvert.calToJd(-year, 12, 31.5, calendar);
+      date = JulianDateConvert.jdToCal(jd, calendar);
+      assertEquals(-year, date.y);
+      assertEquals(12, date.m);
+      assertEquals(31.5, date.d, 0.0);
+    }
+  }
+  
+  @Test public void bulkJulianCalendar() {
+    double[] jds = {0.0, 1842713.0, 2026871.8, -1.5};
+    long[] years = new long[jds.length];
+    int[] months = new int[jds.length];
+    double[] days = new double[jds.length];
+    JulianDateConvert.jdToCal(jds, years, months, days, JULIAN);
+    assertArrayEquals(new long[] {-4712, 333, 837, -4713}, years);
+    assertArrayEquals(new int[] {1, 1, 4, 12}, months);
+    assertArrayEquals(new double[] {1.5, 27.5, 10.3, 31.0}, days, 0.000000001);
+    
+    double[] jdsBack = new double[jds.length];
+    JulianDateConvert.calToJd(years, months, days, jdsBack, JULIAN);
+    assertArrayEquals(jds, jdsBack, 0.000000001);
+  }
+  
+  @Test public void bulkFails() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      JulianDateConvert.calToJd(new long[2], new int[2], new double[2], new double[1]);
+    });
+  }
+  
+  @Test public void badMonth() {
+    assertThrows(DateTimeException.class, () -> JulianDateConvert.calToJd(2025, 0, 1.0));
+    assertThrows(DateTimeException.class, () -> JulianDateConvert.calToJd(2025, 13, 1.0));
+    assertThrows(DateTimeException.class, () -> JulianDateConvert.calToJd(2025, 0, 1.0, JULIAN));
+  }
+  
   /** It's easy to compute the JD manually for small years .*/
   private void testSmallYears() {
     double base = JulianDateConvert.JAN_0_YEAR_0;
@@ -122,6 +228,14 @@ public final class JulianDateConvertTEST {
     testJdToCal(year,  month, day, jd);
   }
 
+  private void testDate(long year, int month, double day, double jd, Calendar calendar) {
+    assertEquals(jd, JulianDateConvert.calToJd(year, month, day, calendar), 0.000000001);
+    JulianDateConvert.DateStruct date = JulianDateConvert.jdToCal(jd, calendar);
+    assertEquals(year, date.y);
+    assertEquals(month, date.m);
+    assertEquals(day, date.d, 0.000000001);
+  }
+
   private void testDateToJdForYear(int year, double jan_0_given_year) {
     LocalDate day = LocalDate.of(year, 1, 1);
     for(int i = 0; i < Year.of(year).length(); ++i) {
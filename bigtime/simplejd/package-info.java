@@ -1,6 +1,6 @@
 /** 
-Convert between dates the Gregorian calendar and Julian dates, and vice versa.
+Convert between dates in the Gregorian or Julian calendar and Julian dates, and vice versa.
 This is simply a stripped-down, minimalist implementation of what's already present
-another package. 
+another package, using primitives instead of BigDecimal. 
 */
-package bigtime.simplejd;
\ No newline at end of file
+package bigtime.simplejd;
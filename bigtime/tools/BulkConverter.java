@@ -0,0 +1,413 @@
+package bigtime.tools;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import bigtime.when.Calendar;
+import bigtime.when.DateTimeFormat;
+import bigtime.when.Timescale;
+import bigtime.when.TimescaleImpl;
+
+/**
+ Command-line tool for converting large files of timestamps, one timestamp per line.
+
+ <P>Each line of the input holds a timestamp in one of its fields.
+ That field is converted to a target timescale and/or calendar, and written in a given format.
+ The rest of the line is copied unchanged, and the lines are written in the same order as the input.
+
+ <P>The input is read through a {@link FileChannel} into a buffer of fixed size, and cut into chunks of complete lines.
+ The chunks are converted by a pool of worker threads.
+ Only a bounded number of chunks is in flight at any time, so the memory used doesn't depend on the size of the file.
+ Throughput is reported to stderr every few seconds, and at the end.
+
+ <P>Usage:
+ <pre>
+java bigtime.tools.BulkConverter --in FILE --out FILE [options]
+
+ --input iso|jd|mjd      the form of the input timestamps (default iso; see DateTimeParser)
+ --input-timescale TS    the timescale of JD and MJD input (required for jd and mjd)
+ --timescale TS          convert to this timescale (TAI, TT, GPS, UTC, UT1, TDB)
+ --calendar CAL          convert to this calendar (GREGORIAN, JULIAN)
+ --output FORMAT         iso, iso:N, jd:N, or mjd:N, for N decimal places (default iso; see DateTimeFormat)
+ --column K              0-based index of the field holding the timestamp (default 0)
+ --delimiter C           the character between fields (default ,)
+ --skip N                copy the first N lines unchanged, for headers (default 0)
+ --threads N             number of worker threads (default: the number of processors)
+ --chunk-kb N            size of the read buffer, in kilobytes (default 1024)
+ --lenient               copy lines that can't be converted unchanged, instead of stopping
+ </pre>
+
+ <P>Example:
+ <pre>java bigtime.tools.BulkConverter --in utc.csv --out tai.csv --timescale TAI --output iso:9 --column 2 --skip 1</pre>
+*/
+public final class BulkConverter {
+
+  /** Run the conversion. Exits with a non-zero status if the conversion fails. */
+  public static void main(String[] args) {
+    try {
+      Stats stats = new BulkConverter(args).run(System.err);
+      System.err.println("Done. " + stats);
+    }
+    catch(IllegalArgumentException | IOException ex) {
+      System.err.println("Conversion failed: " + ex.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   Constructor.
+   @param args as described in the class comment.
+  */
+  public BulkConverter(String... args) {
+    Options options = new Options(args);
+    this.in = options.in;
+    this.out = options.out;
+    this.threads = options.threads;
+    this.chunkSize = options.chunkKb * 1024;
+    this.skip = options.skip;
+    this.converter = new LineConverter(
+      options.input, options.inputTimescale, options.toTimescale, options.toCalendar,
+      options.output, options.column, options.delimiter, options.lenient
+    );
+  }
+
+  /** Summary counts for a conversion. */
+  public static final class Stats {
+    public long lines() { return lines; }
+    public long errors() { return errors; }
+    public long bytesIn() { return bytesIn; }
+    public long bytesOut() { return bytesOut; }
+    /** Intended for logging only. */
+    @Override public String toString() {
+      double seconds = Math.max(elapsedNanos, 1) / 1e9;
+      return String.format(
+        "%,d lines, %,d errors, %.1f MB in, %.1f MB out, %.1f s, %,.0f lines/s, %.1f MB/s",
+        lines, errors, bytesIn / 1e6, bytesOut / 1e6, seconds, lines / seconds, bytesIn / 1e6 / seconds
+      );
+    }
+    private long lines;
+    private long errors;
+    /** Written by the reading thread while the writer thread reports progress. */
+    private volatile long bytesIn;
+    private long bytesOut;
+    private long elapsedNanos;
+  }
+
+  /**
+   Convert the input file, writing to the output file.
+   @param progress receives a progress report every few seconds; can be null.
+  */
+  public Stats run(PrintStream progress) throws IOException {
+    Stats stats = new Stats();
+    long startTime = System.nanoTime();
+    ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "bulk-converter-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    //bounds the number of chunks in flight; the reader blocks when it's full
+    BlockingQueue<Future<LineConverter.Result>> pending = new ArrayBlockingQueue<>(2 * threads);
+    Writer writer = new Writer(pending, stats, progress, startTime);
+    Thread writerThread = new Thread(writer, "bulk-converter-writer");
+    writerThread.start();
+    try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ)) {
+      read(input, workers, pending, stats, writer);
+    }
+    catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading.", ex);
+    }
+    finally {
+      putQuietly(pending, END);
+      joinQuietly(writerThread);
+      workers.shutdownNow();
+    }
+    if (writer.failure != null) {
+      if (writer.failure instanceof IOException) throw (IOException)writer.failure;
+      if (writer.failure instanceof IllegalArgumentException) throw (IllegalArgumentException)writer.failure;
+      if (writer.failure instanceof Error) throw (Error)writer.failure;
+      throw new IOException(writer.failure);
+    }
+    stats.elapsedNanos = System.nanoTime() - startTime;
+    return stats;
+  }
+
+  private final Path in;
+  private final Path out;
+  private final int threads;
+  private final int chunkSize;
+  private final int skip;
+  private final LineConverter converter;
+
+  /** Placed on the queue after the last chunk. */
+  private static final Future<LineConverter.Result> END = new CompletableFuture<>();
+  private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+
+  /**
+   Read the input in fixed-size blocks. Each block is cut after its last line terminator,
+   and the remainder is carried over to the start of the next block.
+  */
+  private void read(FileChannel input, ExecutorService workers, BlockingQueue<Future<LineConverter.Result>> pending, Stats stats, Writer writer) throws IOException, InterruptedException {
+    ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+    long lineNumber = 1;
+    int headerLinesLeft = skip;
+    boolean eof = false;
+    while (!eof && writer.failure == null) {
+      int read = input.read(buffer);
+      if (read < 0) {
+        eof = true;
+      }
+      else {
+        stats.bytesIn += read;
+      }
+      if (buffer.position() == 0) continue;
+      byte[] bytes = buffer.array();
+      int end = eof ? buffer.position() : lastLineEnd(bytes, buffer.position());
+      if (end == 0) {
+        if (buffer.position() < buffer.capacity()) continue; //read more
+        //a single line longer than the buffer: grow the buffer
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+        continue;
+      }
+      byte[] chunk = Arrays.copyOf(bytes, end);
+      int start = 0;
+      //header lines are copied as-is
+      while (headerLinesLeft > 0 && start < end) {
+        int next = start;
+        while (next < end && chunk[next] != '\n') ++next;
+        start = Math.min(next + 1, end);
+        --headerLinesLeft;
+        ++lineNumber;
+      }
+      pending.put(submit(workers, chunk, start, end, lineNumber));
+      lineNumber += countLines(chunk, start, end);
+      //carry over the partial line
+      buffer.limit(buffer.position());
+      buffer.position(end);
+      buffer.compact();
+    }
+  }
+
+  /** The header lines in [0, start) are copied unchanged; the lines in [start, end) are converted. */
+  private Future<LineConverter.Result> submit(ExecutorService workers, byte[] chunk, int start, int end, long lineNumber) {
+    return workers.submit(() -> {
+      LineConverter.Result body = converter.convert(chunk, start, end, lineNumber);
+      if (start == 0) return body;
+      ByteBuffer both = ByteBuffer.allocate(start + body.bytes.remaining());
+      both.put(chunk, 0, start).put(body.bytes).flip();
+      return new LineConverter.Result(both, body.numLines, body.numErrors);
+    });
+  }
+
+  /** Return the index just after the last '\n', or 0 if there's none. */
+  private static int lastLineEnd(byte[] bytes, int length) {
+    for(int i = length - 1; i >= 0; --i) {
+      if (bytes[i] == '\n') return i + 1;
+    }
+    return 0;
+  }
+
+  private static long countLines(byte[] bytes, int start, int end) {
+    long res = 0;
+    for(int i = start; i < end; ++i) {
+      if (bytes[i] == '\n') ++res;
+    }
+    return res;
+  }
+
+  /** Takes the converted chunks in order, and writes them to the output file. */
+  private final class Writer implements Runnable {
+    Writer(BlockingQueue<Future<LineConverter.Result>> pending, Stats stats, PrintStream progress, long startTime) {
+      this.pending = pending;
+      this.stats = stats;
+      this.progress = progress;
+      this.startTime = startTime;
+      this.lastReport = startTime;
+    }
+    @Override public void run() {
+      try (FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        Future<LineConverter.Result> next;
+        while ((next = pending.take()) != END) {
+          LineConverter.Result result = getResult(next);
+          while (result.bytes.hasRemaining()) {
+            stats.bytesOut += output.write(result.bytes);
+          }
+          stats.lines += result.numLines;
+          stats.errors += result.numErrors;
+          report();
+        }
+      }
+      catch(Throwable ex) {
+        failure = ex;
+      }
+      finally {
+        drain();
+      }
+    }
+    /**
+     Keep taking items until the end, so that the reader never blocks. The reader stops soon after a failure.
+     Does nothing after a normal end, when the queue is already finished.
+    */
+    private void drain() {
+      if (failure == null) return;
+      try {
+        while (pending.take() != END) {
+          //discard
+        }
+      }
+      catch(InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    private LineConverter.Result getResult(Future<LineConverter.Result> future) throws Throwable {
+      try {
+        return future.get();
+      }
+      catch(ExecutionException ex) {
+        throw ex.getCause() != null ? ex.getCause() : ex;
+      }
+    }
+    private void report() {
+      long now = System.nanoTime();
+      if (progress != null && now - lastReport >= REPORT_INTERVAL_NANOS) {
+        stats.elapsedNanos = now - startTime;
+        progress.println("Progress: " + stats);
+        lastReport = now;
+      }
+    }
+    private final BlockingQueue<Future<LineConverter.Result>> pending;
+    private final Stats stats;
+    private final PrintStream progress;
+    private final long startTime;
+    private long lastReport;
+    private volatile Throwable failure;
+  }
+
+  private static void putQuietly(BlockingQueue<Future<LineConverter.Result>> queue, Future<LineConverter.Result> item) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        queue.put(item);
+        break;
+      }
+      catch(InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  private static void joinQuietly(Thread thread) {
+    boolean interrupted = false;
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      }
+      catch(InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  /** Parse the command line. */
+  private static final class Options {
+    Options(String[] args) {
+      for(int i = 0; i < args.length; ++i) {
+        String name = args[i];
+        if ("--lenient".equals(name)) {
+          lenient = true;
+          continue;
+        }
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value for " + name);
+        }
+        String value = args[++i];
+        switch(name) {
+          case "--in": in = Paths.get(value); break;
+          case "--out": out = Paths.get(value); break;
+          case "--input": input = LineConverter.Input.valueOf(value.toUpperCase()); break;
+          case "--input-timescale": inputTimescale = TimescaleImpl.valueOf(value.toUpperCase()); break;
+          case "--timescale": toTimescale = TimescaleImpl.valueOf(value.toUpperCase()); break;
+          case "--calendar": toCalendar = Calendar.valueOf(value.toUpperCase()); break;
+          case "--output": output = format(value); break;
+          case "--column": column = positive(name, value, 0); break;
+          case "--delimiter": delimiter = delimiter(value); break;
+          case "--skip": skip = positive(name, value, 0); break;
+          case "--threads": threads = positive(name, value, 1); break;
+          case "--chunk-kb": chunkKb = positive(name, value, 1); break;
+          default: throw new IllegalArgumentException("Unknown option: " + name);
+        }
+      }
+      if (in == null || out == null) {
+        throw new IllegalArgumentException("Both --in and --out are required.");
+      }
+      if (input != LineConverter.Input.ISO && inputTimescale == null) {
+        throw new IllegalArgumentException("JD and MJD input needs --input-timescale.");
+      }
+    }
+    Path in;
+    Path out;
+    LineConverter.Input input = LineConverter.Input.ISO;
+    Timescale inputTimescale;
+    Timescale toTimescale;
+    Calendar toCalendar;
+    DateTimeFormat output = DateTimeFormat.iso();
+    int column = 0;
+    byte delimiter = ',';
+    int skip = 0;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int chunkKb = 1024;
+    boolean lenient = false;
+
+    private static DateTimeFormat format(String value) {
+      String[] parts = value.split(":");
+      if (parts.length == 1 && "iso".equals(parts[0])) return DateTimeFormat.iso();
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Output format should be iso, iso:N, jd:N, or mjd:N: " + value);
+      }
+      int places = positive("--output", parts[1], 0);
+      switch(parts[0]) {
+        case "iso": return DateTimeFormat.iso(places);
+        case "jd": return DateTimeFormat.jd(places);
+        case "mjd": return DateTimeFormat.mjd(places);
+        default: throw new IllegalArgumentException("Output format should be iso, iso:N, jd:N, or mjd:N: " + value);
+      }
+    }
+
+    private static byte delimiter(String value) {
+      String val = "\\t".equals(value) ? "\t" : value;
+      if (val.length() != 1 || val.charAt(0) > 127) {
+        throw new IllegalArgumentException("Delimiter should be a single ASCII character: " + value);
+      }
+      return (byte)val.charAt(0);
+    }
+
+    private static int positive(String name, String value, int min) {
+      try {
+        int res = Integer.parseInt(value);
+        if (res < min) throw new NumberFormatException();
+        return res;
+      }
+      catch(NumberFormatException ex) {
+        throw new IllegalArgumentException(name + " should be an integer, " + min + " or more: " + value);
+      }
+    }
+  }
+}
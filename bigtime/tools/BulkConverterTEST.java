@@ -0,0 +1,89 @@
+package bigtime.tools;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class BulkConverterTEST {
+
+  @Test public void csvColumnToTai() throws IOException {
+    List<String> lines = new ArrayList<>();
+    lines.add("id,when,value");
+    List<String> expected = new ArrayList<>();
+    expected.add("id,when,value");
+    for(int i = 0; i < 5000; ++i) {
+      int minute = i % 60;
+      lines.add(i + ",2025-06-30T12:" + pad(minute) + ":00.5Z,x" + i);
+      expected.add(i + ",2025-06-30T12:" + pad(minute) + ":37.500 TAI,x" + i);
+    }
+    List<String> res = convert(lines, "--timescale", "TAI", "--output", "iso:3", "--column", "1", "--skip", "1", "--threads", "3", "--chunk-kb", "1");
+    assertEquals(expected, res);
+  }
+
+  @Test public void jdInputWithCrLf() throws IOException {
+    Path in = Files.createTempFile("bulk-in", ".txt");
+    Path out = Files.createTempFile("bulk-out", ".txt");
+    try {
+      Files.write(in, "2451545.0\r\n\r\n2451545.5\r\n".getBytes(StandardCharsets.US_ASCII));
+      new BulkConverter("--in", in.toString(), "--out", out.toString(), "--input", "jd", "--input-timescale", "TT", "--calendar", "JULIAN").run(null);
+      String res = new String(Files.readAllBytes(out), StandardCharsets.US_ASCII);
+      assertEquals("1999-12-19 JU 12:00:00.0 TT\r\n\r\n1999-12-20 JU 00:00:00.0 TT\r\n", res);
+    }
+    finally {
+      Files.deleteIfExists(in);
+      Files.deleteIfExists(out);
+    }
+  }
+
+  @Test public void mjdOutputNoFinalNewline() throws IOException {
+    List<String> res = convertRaw("2000-01-01T12:00:00 TT", "--output", "mjd:2");
+    assertEquals(List.of("51544.50"), res);
+  }
+
+  @Test public void badLines() throws IOException {
+    List<String> lines = List.of("2000-01-01T12:00:00 TT", "garbage", "2000-01-01T12:00:00 TT");
+    assertThrows(IllegalArgumentException.class, () -> convert(lines, "--output", "jd:1"));
+    List<String> res = convert(lines, "--output", "jd:1", "--lenient");
+    assertEquals(List.of("2451545.0", "garbage", "2451545.0"), res);
+  }
+
+  @Test public void badOptions() {
+    assertThrows(IllegalArgumentException.class, () -> new BulkConverter("--in", "a"));
+    assertThrows(IllegalArgumentException.class, () -> new BulkConverter("--in", "a", "--out", "b", "--input", "jd"));
+    assertThrows(IllegalArgumentException.class, () -> new BulkConverter("--in", "a", "--out", "b", "--output", "xyz:3"));
+    assertThrows(IllegalArgumentException.class, () -> new BulkConverter("--in", "a", "--out", "b", "--threads", "0"));
+  }
+
+  private static List<String> convert(List<String> lines, String... options) throws IOException {
+    return convertRaw(String.join("\n", lines) + "\n", options);
+  }
+
+  private static List<String> convertRaw(String text, String... options) throws IOException {
+    Path in = Files.createTempFile("bulk-in", ".txt");
+    Path out = Files.createTempFile("bulk-out", ".txt");
+    try {
+      Files.write(in, text.getBytes(StandardCharsets.US_ASCII));
+      List<String> args = new ArrayList<>(List.of("--in", in.toString(), "--out", out.toString()));
+      args.addAll(List.of(options));
+      BulkConverter.Stats stats = new BulkConverter(args.toArray(new String[0])).run(null);
+      assertEquals(text.getBytes(StandardCharsets.US_ASCII).length, stats.bytesIn());
+      return Files.readAllLines(out, StandardCharsets.US_ASCII);
+    }
+    finally {
+      Files.deleteIfExists(in);
+      Files.deleteIfExists(out);
+    }
+  }
+
+  private static String pad(int val) {
+    return val < 10 ? "0" + val : String.valueOf(val);
+  }
+}
@@ -0,0 +1,191 @@
+package bigtime.tools;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import bigtime.when.Calendar;
+import bigtime.when.DateTime;
+import bigtime.when.DateTimeFormat;
+import bigtime.when.DateTimeParser;
+import bigtime.when.JulianDate;
+import bigtime.when.Timescale;
+
+/**
+ Convert a chunk of complete lines of text, and return the converted lines.
+
+ <P>In each line, a single field holds a timestamp. That field is replaced, and the rest of the line is copied unchanged.
+ Empty lines are copied unchanged.
+ This class is stateless, and can be used by many threads at the same time.
+*/
+final class LineConverter {
+
+  /** The supported forms of a timestamp in the input. */
+  enum Input { ISO, JD, MJD }
+
+  /**
+   Constructor.
+   @param inputTimescale for JD and MJD input only; null for ISO input.
+   @param toTimescale null to keep the timescale of the input.
+   @param toCalendar null to keep the calendar of the input.
+   @param column 0-based index of the field holding the timestamp.
+   @param lenient if true, a line that can't be converted is copied unchanged; otherwise an exception is thrown.
+  */
+  LineConverter(Input input, Timescale inputTimescale, Timescale toTimescale, Calendar toCalendar, DateTimeFormat output, int column, byte delimiter, boolean lenient) {
+    this.input = input;
+    this.inputTimescale = inputTimescale;
+    this.toTimescale = toTimescale;
+    this.toCalendar = toCalendar;
+    this.output = output;
+    this.column = column;
+    this.delimiter = delimiter;
+    this.lenient = lenient;
+  }
+
+  /** The result of converting a chunk. */
+  static final class Result {
+    Result(ByteBuffer bytes, int numLines, int numErrors) {
+      this.bytes = bytes;
+      this.numLines = numLines;
+      this.numErrors = numErrors;
+    }
+    /** Ready to be read: position 0, limit at the end of the data. */
+    final ByteBuffer bytes;
+    final int numLines;
+    final int numErrors;
+  }
+
+  /**
+   Convert the given region of bytes, which holds only complete lines.
+   The last line may or may not end in a line terminator.
+   @param start index of the first byte (inclusive)
+   @param length index after the last byte (exclusive)
+   @param firstLineNumber 1-based line number of the first line in the region, for error messages.
+  */
+  Result convert(byte[] bytes, int start, int length, long firstLineNumber) {
+    ByteBuffer out = ByteBuffer.allocate(length - start + (length - start) / 2 + 256);
+    int numLines = 0;
+    int numErrors = 0;
+    int lineStart = start;
+    while (lineStart < length) {
+      int lineEnd = lineStart;
+      while (lineEnd < length && bytes[lineEnd] != '\n') ++lineEnd;
+      int contentEnd = (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') ? lineEnd - 1 : lineEnd;
+      int next = lineEnd < length ? lineEnd + 1 : lineEnd; //includes the '\n'
+      while (true) {
+        int mark = out.position();
+        try {
+          if (!convertLine(bytes, lineStart, contentEnd, next, out)) {
+            if (!lenient) {
+              throw new IllegalArgumentException("No conversion is defined to the target timescale.");
+            }
+            out.put(bytes, lineStart, next - lineStart);
+            ++numErrors;
+          }
+          break;
+        }
+        catch(BufferOverflowException ex) {
+          out.position(mark);
+          out = grow(out);
+        }
+        catch(IllegalArgumentException ex) {
+          if (!lenient) {
+            throw new IllegalArgumentException("Line " + (firstLineNumber + numLines) + ": " + ex.getMessage(), ex);
+          }
+          out.position(mark);
+          if (out.remaining() < next - lineStart) {
+            out = grow(out);
+          }
+          out.put(bytes, lineStart, next - lineStart);
+          ++numErrors;
+          break;
+        }
+      }
+      ++numLines;
+      lineStart = next;
+    }
+    out.flip();
+    return new Result(out, numLines, numErrors);
+  }
+
+  private final Input input;
+  private final Timescale inputTimescale;
+  private final Timescale toTimescale;
+  private final Calendar toCalendar;
+  private final DateTimeFormat output;
+  private final int column;
+  private final byte delimiter;
+  private final boolean lenient;
+
+  private static final BigDecimal MJD_OFFSET = new BigDecimal("2400000.5");
+
+  /**
+   Write the converted line, including its line terminator.
+   Return false only if the timestamp has no defined conversion to the target timescale.
+  */
+  private boolean convertLine(byte[] bytes, int start, int contentEnd, int next, ByteBuffer out) {
+    if (start == contentEnd) {
+      out.put(bytes, start, next - start); //empty line
+      return true;
+    }
+    int fieldStart = start;
+    for(int i = 0; i < column; ++i) {
+      while (fieldStart < contentEnd && bytes[fieldStart] != delimiter) ++fieldStart;
+      if (fieldStart == contentEnd) {
+        throw new IllegalArgumentException("Line has fewer than " + (column + 1) + " fields.");
+      }
+      ++fieldStart; //skip the delimiter
+    }
+    int fieldEnd = fieldStart;
+    while (fieldEnd < contentEnd && bytes[fieldEnd] != delimiter) ++fieldEnd;
+
+    Optional<DateTime> converted = convert(read(bytes, fieldStart, fieldEnd));
+    if (!converted.isPresent()) return false;
+    out.put(bytes, start, fieldStart - start);
+    output.appendTo(out, converted.get());
+    out.put(bytes, fieldEnd, next - fieldEnd);
+    return true;
+  }
+
+  private DateTime read(byte[] bytes, int start, int end) {
+    if (input == Input.ISO) {
+      return DateTimeParser.standard().parse(bytes, start, end - start);
+    }
+    char[] chars = new char[end - start];
+    for(int i = 0; i < chars.length; ++i) {
+      chars[i] = (char)(bytes[start + i] & 0xFF);
+    }
+    BigDecimal val;
+    try {
+      val = new BigDecimal(chars);
+    }
+    catch(NumberFormatException ex) {
+      throw new IllegalArgumentException("Not a number: " + new String(chars));
+    }
+    if (input == Input.MJD) {
+      val = val.add(MJD_OFFSET);
+    }
+    Calendar calendar = toCalendar == null ? Calendar.GREGORIAN : toCalendar;
+    return DateTime.from(JulianDate.from(val, inputTimescale), calendar);
+  }
+
+  private Optional<DateTime> convert(DateTime dt) {
+    Optional<DateTime> res = Optional.of(dt);
+    if (toTimescale != null) {
+      res = dt.convertTo(toTimescale);
+    }
+    if (res.isPresent() && toCalendar != null && res.get().date().calendar() != toCalendar) {
+      JulianDate jd = res.get().toJulianDate();
+      res = Optional.of(DateTime.from(jd, toCalendar));
+    }
+    return res;
+  }
+
+  private static ByteBuffer grow(ByteBuffer buffer) {
+    ByteBuffer res = ByteBuffer.allocate(buffer.capacity() * 2);
+    buffer.flip();
+    res.put(buffer);
+    return res;
+  }
+}
@@ -0,0 +1,2 @@
+/** Command-line tools built on the library.  */
+package bigtime.tools;
@@ -0,0 +1,95 @@
+package bigtime.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ Scan the lines of a stream of bytes, passing each line to a {@link Handler} as a slice of an internal buffer.
+
+ <P>No bytes are copied into Strings or other objects: the handler sees the buffer itself, along with the
+ start and end of the line. This suits ASCII data files, whose fields can be parsed straight from the bytes.
+ The buffer grows only as needed to hold the longest line, so memory doesn't grow with the size of the input.
+
+ <P>As in {@link java.io.BufferedReader#readLine()}, lines end with <em>\n</em>, <em>\r</em>, or <em>\r\n</em>.
+ The line terminator is not part of the slice.
+ The last line may or may not have a line terminator.
+*/
+public final class ByteLineScanner {
+
+  /** Receives each line. */
+  public interface Handler {
+    /**
+     Process a single line.
+     The bytes are valid only during this call, and must not be changed.
+     @param bytes the internal buffer
+     @param start index of the first byte of the line (inclusive)
+     @param end index after the last byte of the line (exclusive)
+     @param lineNumber 1-based
+    */
+    void line(byte[] bytes, int start, int end, long lineNumber);
+  }
+
+  /** Constructor, with a buffer of the default size. */
+  public ByteLineScanner() {
+    this(DEFAULT_SIZE);
+  }
+
+  /**
+   Constructor.
+   @param initialSize the initial size of the buffer in bytes.
+  */
+  public ByteLineScanner(int initialSize) {
+    if (initialSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be positive: " + initialSize);
+    }
+    this.initialSize = initialSize;
+  }
+
+  /**
+   Pass each line of the given input to the given handler, in order, and return the number of lines.
+   The input is read to its end, but it's not closed.
+  */
+  public long scan(InputStream input, Handler handler) throws IOException {
+    byte[] buffer = new byte[initialSize];
+    long lineNumber = 0;
+    int lineStart = 0;
+    int end = 0; //end of the valid bytes in the buffer
+    int scanned = 0; //bytes before this index have been checked for line terminators
+    boolean skipNewline = false; //the last line ended with '\r', so a '\n' right after it belongs to that line
+    while (true) {
+      int numRead = input.read(buffer, end, buffer.length - end);
+      if (numRead < 0) break;
+      end += numRead;
+      for(int idx = scanned; idx < end; ++idx) {
+        byte b = buffer[idx];
+        if (skipNewline && b == '\n') {
+          lineStart = idx + 1;
+        }
+        else if (b == '\n' || b == '\r') {
+          handler.line(buffer, lineStart, idx, ++lineNumber);
+          lineStart = idx + 1;
+        }
+        skipNewline = (b == '\r');
+      }
+      scanned = end;
+      if (end == buffer.length) {
+        //make room: move the partial line to the start, and grow if the line fills most of the buffer
+        int partial = end - lineStart;
+        byte[] target = partial > buffer.length / 2 ? Arrays.copyOf(buffer, buffer.length * 2) : buffer;
+        System.arraycopy(buffer, lineStart, target, 0, partial);
+        buffer = target;
+        lineStart = 0;
+        end = partial;
+        scanned = partial;
+      }
+    }
+    if (lineStart < end) {
+      handler.line(buffer, lineStart, end, ++lineNumber); //no line terminator at the end of the input
+    }
+    return lineNumber;
+  }
+
+  private final int initialSize;
+  private static final int DEFAULT_SIZE = 64 * 1024;
+}
@@ -0,0 +1,82 @@
+package bigtime.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class ByteLineScannerTEST {
+
+  @Test public void lineEndings() throws IOException {
+    assertLines("a\nbb\r\nccc\rdddd", 64, "a", "bb", "ccc", "dddd");
+    assertLines("a\n\n\r\n\r\rb\n", 64, "a", "", "", "", "", "b");
+    assertLines("", 64);
+    assertLines("\n", 64, "");
+    assertLines("\r", 64, "");
+  }
+
+  @Test public void lastLineWithoutTerminator() throws IOException {
+    assertLines("first\nlast", 64, "first", "last");
+    assertLines("only", 64, "only");
+    assertLines("first\r\nlast", 2, "first", "last");
+  }
+
+  @Test public void bufferGrowsForLongLines() throws IOException {
+    String longLine = "x".repeat(1000);
+    assertLines("ab\n" + longLine + "\ncd", 4, "ab", longLine, "cd");
+    assertLines(longLine, 1, longLine);
+  }
+
+  /** With a small buffer, the '\r' and the '\n' of a single terminator are seen in separate reads. */
+  @Test public void crLfSplitAcrossReads() throws IOException {
+    for(int size = 1; size < 12; ++size) {
+      assertLines("abc\r\ndef\r\n\r\ngh\r\n", size, "abc", "def", "", "gh");
+    }
+  }
+
+  @Test public void lineNumbersAndCount() throws IOException {
+    List<Long> numbers = new ArrayList<>();
+    long count = new ByteLineScanner(4).scan(input("a\nb\r\nc"), (bytes, start, end, lineNumber) -> numbers.add(lineNumber));
+    assertEquals(3, count);
+    assertEquals(List.of(1L, 2L, 3L), numbers);
+  }
+
+  @Test public void inputIsNotClosed() throws IOException {
+    Tracking input = new Tracking("a\nb\n");
+    new ByteLineScanner().scan(input, (bytes, start, end, lineNumber) -> {});
+    assertFalse(input.closed);
+    assertEquals(-1, input.read());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badSize() {
+    new ByteLineScanner(0);
+  }
+
+  private static void assertLines(String text, int size, String... expected) throws IOException {
+    List<String> lines = new ArrayList<>();
+    new ByteLineScanner(size).scan(input(text), (bytes, start, end, lineNumber) -> lines.add(new String(bytes, start, end - start, StandardCharsets.US_ASCII)));
+    assertEquals(List.of(expected), lines);
+  }
+
+  private static ByteArrayInputStream input(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static final class Tracking extends ByteArrayInputStream {
+    Tracking(String text) {
+      super(text.getBytes(StandardCharsets.US_ASCII));
+    }
+    boolean closed;
+    @Override public void close() throws IOException {
+      closed = true;
+      super.close();
+    }
+  }
+}
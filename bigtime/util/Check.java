@@ -13,7 +13,7 @@ public final class Check {
   }
   
   /** Throw exception if given value is not in the range [min, max]. The max is included. */
-  public static void range(Integer val, Integer min, Integer max) {
+  public static void range(int val, int min, int max) {
     if (val < min || val > max) {
       throw new IllegalArgumentException(val + " is not in range [" + min + ".." + max + "]");
     }
@@ -26,6 +26,16 @@ public final class Check {
     }
   }
   
+  /** 
+   Throw exception if given value is not in range [min, max). The max is excluded.
+   Unlike the version that takes Double bounds, this doesn't create any objects when the value is in range.
+  */
+  public static void range(BigDecimal val, BigDecimal min, BigDecimal max) {
+    if (val.compareTo(min) < 0 || val.compareTo(max) >= 0) {
+      throw new IllegalArgumentException(val + " is not in range [" + min.toPlainString() + ".." + max.toPlainString() + ")");
+    }
+  }
+  
   /** Throw exception if given value is not in range [min, max). The max is excluded. */
   public static void range(BigDecimal val, Double min, Double max) {
     BigDecimal aMin = big(min);
@@ -10,4 +10,20 @@ public final class Consts {
   public static final int HOURS_PER_DAY = 24;
   public static final int SECONDS_PER_DAY = SECONDS_PER_MINUTE * MINUTES_PER_HOUR * HOURS_PER_DAY;
   public static final int DAYS_IN_JULIAN_CENTURY = 36525;
-}
\ No newline at end of file
+  public static final long NANOS_PER_SECOND = 1_000_000_000L;
+  public static final long NANOS_PER_MINUTE = SECONDS_PER_MINUTE * NANOS_PER_SECOND;
+  
+  /**
+   10<sup>exponent</sup>, as a long.
+   @param exponent range [0, 18]
+  */
+  public static long powerOfTen(int exponent) {
+    return POWERS_OF_TEN[exponent];
+  }
+  
+  private static final long[] POWERS_OF_TEN = {
+    1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+    10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+    1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+  };
+}
@@ -1,25 +1,34 @@
 package bigtime.util;
 
-import static bigtime.util.LogUtil.*;
-
 import java.io.BufferedReader;
-
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
-  Read a text file and return it as a list of strings.
+  Read a text file, either as a list of strings, as a stream of strings, or one line at a time.
   
   <P>This class allows the code to follow the 
   <a href='http://www.javapractices.com/topic/TopicAction.do?Id=205'>package-by-feature</a> design principle.
+  
+  <P>For large files, prefer {@link #lines(Class, String, Charset)} or {@link #forEachLine(Class, String, Charset, Consumer)}
+  to the methods returning a list. They read the file in a single pass, with memory that doesn't grow with the size of the file.
+  (For lines of bytes, see {@link ByteLineScanner}.)
+  
+  <P>All methods throw an {@link UncheckedIOException} if the file can't be found or read.
 */
 public final class DataFileReader {
   
@@ -61,6 +70,62 @@ public final class DataFileReader {
     return readFile(fileName, LATIN1);
   }
   
+  /**
+   Return the lines of a text file in the same directory as the calling class, as a lazily-populated stream.
+   The caller must close the stream, usually with a try-with-resources statement.
+   @param aClass the calling class
+   @param fileName name of a text file that resides in the same directory as the calling class, or in a sub-directory.
+  */
+  public Stream<String> lines(Class<?> aClass, String fileName, Charset charset) {
+    return lines(open(aClass, fileName, charset));
+  }
+
+  /**
+   Return the lines of a text file as a lazily-populated stream.
+   The caller must close the stream, usually with a try-with-resources statement.
+   @param fileName the full name of a text file. 
+  */
+  public Stream<String> lines(String fileName, Charset charset) {
+    try {
+      return Files.lines(Paths.get(fileName), charset);
+    }
+    catch(IOException ex) {
+      throw new UncheckedIOException("Cannot open file: " + fileName, ex);
+    }
+  }
+  
+  /**
+   Pass each line of a text file in the same directory as the calling class to the given action, in order.
+   
+   <P>Each line is passed as a view onto an internal buffer, without its line terminator.
+   As in {@link BufferedReader#readLine()}, a line ends with <em>\n</em>, <em>\r</em>, or <em>\r\n</em>.
+   The view is valid only during the call to the action; call its <em>toString()</em> method to keep a copy.
+   The buffer grows only as needed to hold the longest line.
+   @param aClass the calling class
+   @param fileName name of a text file that resides in the same directory as the calling class, or in a sub-directory.
+  */
+  public void forEachLine(Class<?> aClass, String fileName, Charset charset, Consumer<CharSequence> action) {
+    try (Reader reader = open(aClass, fileName, charset)) {
+      forEachLine(reader, action);
+    }
+    catch(IOException ex) {
+      throw new UncheckedIOException("Cannot read file: " + fileName, ex);
+    }
+  }
+  
+  /**
+   As in {@link #forEachLine(Class, String, Charset, Consumer)}, for any file.
+   @param fileName the full name of a text file. 
+  */
+  public void forEachLine(String fileName, Charset charset, Consumer<CharSequence> action) {
+    try (Reader reader = Files.newBufferedReader(Paths.get(fileName), charset)) {
+      forEachLine(reader, action);
+    }
+    catch(IOException ex) {
+      throw new UncheckedIOException("Cannot read file: " + fileName, ex);
+    }
+  }
+  
   /** Used when reading/writing files that DO NOT CONTAIN the PostScript programming language. */
   public final static Charset UTF8 = StandardCharsets.UTF_8;
   
@@ -73,6 +138,9 @@ public final class DataFileReader {
   /** A field separator - {@value}. */
   public final static String SEP = "|";
 
+  /** The initial size of the buffer used by {@link #forEachLine(Reader, Consumer)}. */
+  private static final int BUFFER_SIZE = 8 * 1024;
+
   /**
    Read a text file and return it as a list of (untrimmed) Strings.
    @param aClass the calling class
@@ -81,20 +149,7 @@ public final class DataFileReader {
   */
   private List<String> readFile(Class<?> aClass, String fileName, Charset charset){
     List<String> result = new ArrayList<>();
-    try (
-      //uses the class loader search mechanism:
-      InputStream input = aClass.getResourceAsStream(fileName);
-      InputStreamReader isr = new InputStreamReader(input, charset);
-      BufferedReader reader = new BufferedReader(isr);
-    ){
-      String line = null;
-      while ((line = reader.readLine()) != null) {
-        result.add(line);
-      }      
-    }
-    catch(IOException ex){
-      log("CANNOT OPEN FILE: " + fileName);
-    }
+    forEachLine(aClass, fileName, charset, line -> result.add(line.toString()));
     return result;
   }
   
@@ -103,14 +158,77 @@ public final class DataFileReader {
    @param fileName the full name of a text file. 
   */
   private List<String> readFile(String fileName, Charset charset) {
-    List<String> result = new ArrayList<>();
     try {
-      Path path = Paths.get(fileName);
-      result = Files.readAllLines(path, charset);
+      return Files.readAllLines(Paths.get(fileName), charset);
     }
     catch(IOException ex) {
-      log("CANNOT OPEN FILE: " + fileName + " " + ex.toString());
+      throw new UncheckedIOException("Cannot read file: " + fileName, ex);
     }
-    return result;
-  }  
-}
\ No newline at end of file
+  }
+  
+  /** Uses the class loader search mechanism. */
+  private Reader open(Class<?> aClass, String fileName, Charset charset) {
+    InputStream input = aClass.getResourceAsStream(fileName);
+    if (input == null) {
+      throw new UncheckedIOException(new FileNotFoundException("Cannot open file: " + fileName + " (relative to " + aClass.getName() + ")"));
+    }
+    return new InputStreamReader(input, charset);
+  }
+  
+  private void close(Reader reader) {
+    try {
+      reader.close();
+    }
+    catch(IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+  
+  /** Return the lines of the given reader as a stream. Closing the stream closes the reader. */
+  Stream<String> lines(Reader reader) {
+    BufferedReader buffered = new BufferedReader(reader);
+    return buffered.lines().onClose(() -> close(buffered));
+  }
+  
+  /** 
+   Read characters in blocks. Each line is passed as a view onto the buffer, without copying.
+   Lines end as in {@link BufferedReader#readLine()}. The reader is not closed.
+  */
+  void forEachLine(Reader reader, Consumer<CharSequence> action) throws IOException {
+    char[] buffer = new char[BUFFER_SIZE];
+    int lineStart = 0;
+    int end = 0; //end of the valid chars in the buffer
+    int scanned = 0; //chars before this index have been checked for line terminators
+    boolean skipNewline = false; //the last line ended with '\r', so a '\n' right after it belongs to that line
+    while (true) {
+      int numRead = reader.read(buffer, end, buffer.length - end);
+      if (numRead < 0) break;
+      end += numRead;
+      for(int idx = scanned; idx < end; ++idx) {
+        char c = buffer[idx];
+        if (skipNewline && c == '\n') {
+          lineStart = idx + 1;
+        }
+        else if (c == '\n' || c == '\r') {
+          action.accept(CharBuffer.wrap(buffer, lineStart, idx - lineStart));
+          lineStart = idx + 1;
+        }
+        skipNewline = (c == '\r');
+      }
+      scanned = end;
+      if (end == buffer.length) {
+        //make room: move the partial line to the start, and grow if the line fills most of the buffer
+        int partial = end - lineStart;
+        char[] target = partial > buffer.length / 2 ? Arrays.copyOf(buffer, buffer.length * 2) : buffer;
+        System.arraycopy(buffer, lineStart, target, 0, partial);
+        buffer = target;
+        lineStart = 0;
+        end = partial;
+        scanned = partial;
+      }
+    }
+    if (lineStart < end) {
+      action.accept(CharBuffer.wrap(buffer, lineStart, end - lineStart)); //no line terminator at the end of the file
+    }
+  }
+}
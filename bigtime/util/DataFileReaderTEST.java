@@ -0,0 +1,116 @@
+package bigtime.util;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class DataFileReaderTEST {
+
+  /** The same line endings as BufferedReader.readLine. */
+  @Test public void lineEndings() throws IOException {
+    assertLines("a\nbb\r\nccc\rdddd", "a", "bb", "ccc", "dddd");
+    assertLines("a\n\n\r\n\r\rb\n", "a", "", "", "", "", "b");
+    assertLines("", new String[0]);
+    assertLines("\r", "");
+  }
+
+  @Test public void lastLineWithoutTerminator() throws IOException {
+    assertLines("first\nlast", "first", "last");
+    assertLines("only", "only");
+  }
+
+  @Test public void bufferGrowsForLongLines() throws IOException {
+    String longLine = "x".repeat(20_000);
+    assertLines("ab\n" + longLine + "\r\ncd", "ab", longLine, "cd");
+  }
+
+  /** The '\r' fills the initial buffer, and its '\n' arrives with the next read. */
+  @Test public void crLfSplitAcrossReads() throws IOException {
+    String line = "y".repeat(8 * 1024 - 1);
+    assertLines(line + "\r\nz\r\n", line, "z");
+  }
+
+  @Test public void listMatchesStream() throws IOException {
+    Path file = Files.createTempFile("data-file", ".txt");
+    try {
+      Files.write(file, "a\r\nb\rc\n\nd".getBytes(StandardCharsets.UTF_8));
+      DataFileReader reader = new DataFileReader();
+      List<String> expected = List.of("a", "b", "c", "", "d");
+      assertEquals(expected, reader.readFileUTF8(file.toString()));
+      try (Stream<String> lines = reader.lines(file.toString(), DataFileReader.UTF8)) {
+        assertEquals(expected, lines.collect(Collectors.toList()));
+      }
+      List<String> res = new ArrayList<>();
+      reader.forEachLine(file.toString(), DataFileReader.UTF8, line -> res.add(line.toString()));
+      assertEquals(expected, res);
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test public void closingTheStreamClosesTheReader() {
+    Tracking reader = new Tracking("a\nb\n");
+    try (Stream<String> lines = new DataFileReader().lines(reader)) {
+      assertEquals("a", lines.findFirst().get());
+      assertFalse(reader.closed);
+    }
+    assertTrue(reader.closed);
+  }
+
+  @Test public void missingResource() {
+    DataFileReader reader = new DataFileReader();
+    assertMissing(() -> reader.readFileUTF8(DataFileReaderTEST.class, "no-such-file.txt"));
+    assertMissing(() -> reader.lines(DataFileReaderTEST.class, "no-such-file.txt", DataFileReader.UTF8));
+    assertMissing(() -> reader.forEachLine(DataFileReaderTEST.class, "no-such-file.txt", DataFileReader.UTF8, line -> {}));
+  }
+
+  @Test(expected = UncheckedIOException.class)
+  public void missingFile() {
+    new DataFileReader().readFileUTF8("/no/such/dir/no-such-file.txt");
+  }
+
+  private static void assertLines(String text, String... expected) throws IOException {
+    List<String> lines = new ArrayList<>();
+    new DataFileReader().forEachLine(new StringReader(text), line -> lines.add(line.toString()));
+    assertEquals(List.of(expected), lines);
+  }
+
+  private static void assertMissing(Runnable action) {
+    try {
+      action.run();
+      fail("Missing resource was not reported.");
+    }
+    catch(UncheckedIOException ex) {
+      assertTrue(ex.getCause() instanceof FileNotFoundException);
+    }
+  }
+
+  private static final class Tracking extends Reader {
+    Tracking(String text) {
+      this.text = new StringReader(text);
+    }
+    private final StringReader text;
+    boolean closed;
+    @Override public int read(char[] buffer, int offset, int length) throws IOException {
+      return text.read(buffer, offset, length);
+    }
+    @Override public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ A compact binary encoding for {@link Date}, {@link Time}, {@link DateTime}, and {@link JulianDate}.
+
+ <P>Items are written to, and read from, a {@link ByteBuffer}, starting at its current position.
+ Decoding an encoded item always gives an object that's <em>equal</em> to the original,
+ including the scale of its {@link BigDecimal} seconds or Julian date.
+
+ <P>The layout of each item:
+ <ul>
+  <li>{@link Date}: the year as a zig-zag varint, then 2 bytes holding the calendar (1 bit), the month (4 bits), and the day (5 bits).
+  <li>{@link Time}: 2 bytes holding the hour (5 bits) and the minute (6 bits), then 1 byte for the timescale code, then the seconds as a decimal.
+  <li>{@link DateTime}: a {@link Date}, followed by a {@link Time}.
+  <li>{@link JulianDate}: 1 byte for the timescale code, then the Julian date as a decimal.
+ </ul>
+ A <em>decimal</em> is its scale as a zig-zag varint, then its unscaled value.
+ An unscaled value that fits in 62 bits is a single zig-zag varint, shifted left by 1 bit.
+ A larger unscaled value is a varint holding its length in bytes (shifted left by 1 bit, with the low bit set),
+ followed by the bytes of {@link BigInteger#toByteArray()}.
+
+ <P>A varint is written 7 bits at a time, least significant group first, with the high bit of each byte set when more bytes follow.
+ The zig-zag encoding maps signed values to unsigned ones (0, -1, 1, -2, 2, ... to 0, 1, 2, 3, 4, ...),
+ so that small negative values stay small.
+
+ <P>The timescale and calendar codes are fixed, and never depend on the order of declaration of the enum constants:
+ <ul>
+  <li>timescales: TAI 0, TT 1, GPS 2, UTC 3, UT1 4, TDB 5.
+  <li>calendars: JULIAN 0, GREGORIAN 1.
+ </ul>
+ Decoding an unknown code throws an {@link IllegalArgumentException}.
+ Any other timescale is written as the code {@value #CUSTOM_TIMESCALE}, followed by a varint length and the UTF-8 bytes of its {@link Timescale#id()}.
+ To decode such items, pass the custom timescales to {@link #withTimescales(Timescale...)}.
+
+ <P>For example, <em>2025-01-01 01:09:02.25 TT</em> is encoded in 10 bytes, and its text form has 25 characters.
+ When the seconds of a {@link Time} have 9 decimal places or fewer, encoding creates no objects.
+
+ <P>Encoding throws {@link java.nio.BufferOverflowException} if the target has too little room, 
+ and decoding throws {@link java.nio.BufferUnderflowException} if the source ends in the middle of an item.
+ Decoding throws {@link IllegalArgumentException} for data that's recognizably corrupt, including invalid field values.
+
+ <P>Instances of this class are immutable, and can be shared between threads.
+*/
+public final class BinaryCodec {
+
+  /** A codec that recognizes the timescales in {@link TimescaleImpl}. */
+  public static BinaryCodec standard() {
+    return STANDARD;
+  }
+
+  /** A codec that recognizes the timescales in {@link TimescaleImpl}, and also the given timescales, by their {@link Timescale#id()}. */
+  public static BinaryCodec withTimescales(Timescale... timescales) {
+    return new BinaryCodec(Arrays.copyOf(timescales, timescales.length));
+  }
+
+  /**
+   Write the given date at the current position of the target: the year as a zig-zag varint, then 2 bytes for the calendar, month, and day.
+   @throws java.nio.BufferOverflowException if the target has too little room.
+  */
+  public void encode(Date date, ByteBuffer target) {
+    putVarLong(target, zigZag(date.year()));
+    target.putShort((short)(code(date.calendar(), CALENDAR_CODES) << 9 | date.month() << 5 | date.day()));
+  }
+
+  /**
+   Read a date written by {@link #encode(Date, ByteBuffer)}, from the current position of the source.
+   @throws java.nio.BufferUnderflowException if the source ends in the middle of the date.
+   @throws IllegalArgumentException if the calendar code is unknown, or the fields don't form a valid date.
+  */
+  public Date decodeDate(ByteBuffer source) {
+    long year = unZigZag(getVarLong(source));
+    int bits = source.getShort() & 0xFFFF;
+    int calendar = bits >>> 9;
+    if (calendar >= CALENDARS.length) {
+      throw new IllegalArgumentException("Unknown calendar code: " + calendar);
+    }
+    return Date.from(year, (bits >>> 5) & 0xF, bits & 0x1F, CALENDARS[calendar]);
+  }
+
+  /**
+   Write the given time at the current position of the target: 2 bytes for the hour and minute, the timescale code, then the seconds as a decimal.
+   @throws java.nio.BufferOverflowException if the target has too little room.
+  */
+  public void encode(Time time, ByteBuffer target) {
+    target.putShort((short)(time.hour() << 6 | time.minute()));
+    putTimescale(time.timescale(), target);
+    long nanos = time.nanosOfDay();
+    int scale = time.seconds().scale();
+    if (nanos != Time.NOT_NANOS && scale >= 0) {
+      //no objects are created here
+      long nanosOfMinute = nanos % NANOS_PER_MINUTE;
+      putVarLong(target, zigZag(scale));
+      putVarLong(target, zigZag(nanosOfMinute / powerOfTen(Time.MAX_NANOS_SCALE - scale)) << 1);
+    }
+    else {
+      putDecimal(time.seconds(), target);
+    }
+  }
+
+  /**
+   Read a time written by {@link #encode(Time, ByteBuffer)}, from the current position of the source.
+   @throws java.nio.BufferUnderflowException if the source ends in the middle of the time.
+   @throws IllegalArgumentException if the timescale is unknown to this codec, the data is corrupt, or the fields don't form a valid time.
+  */
+  public Time decodeTime(ByteBuffer source) {
+    int bits = source.getShort() & 0xFFFF;
+    Timescale timescale = getTimescale(source);
+    BigDecimal seconds = getDecimal(source);
+    return Time.from(bits >>> 6, bits & 0x3F, seconds, timescale);
+  }
+
+  /**
+   Write the given date-time at the current position of the target: its {@link Date}, then its {@link Time}.
+   @throws java.nio.BufferOverflowException if the target has too little room.
+  */
+  public void encode(DateTime dateTime, ByteBuffer target) {
+    encode(dateTime.date(), target);
+    encode(dateTime.time(), target);
+  }
+
+  /**
+   Read a date-time written by {@link #encode(DateTime, ByteBuffer)}, from the current position of the source.
+   @throws java.nio.BufferUnderflowException if the source ends in the middle of the date-time.
+   @throws IllegalArgumentException for the same reasons as {@link #decodeDate(ByteBuffer)} and {@link #decodeTime(ByteBuffer)}.
+  */
+  public DateTime decodeDateTime(ByteBuffer source) {
+    Date date = decodeDate(source);
+    return DateTime.from(date, decodeTime(source));
+  }
+
+  /**
+   Write the given Julian date at the current position of the target: the timescale code, then the Julian date as a decimal.
+   @throws java.nio.BufferOverflowException if the target has too little room.
+  */
+  public void encode(JulianDate julianDate, ByteBuffer target) {
+    putTimescale(julianDate.timescale(), target);
+    putDecimal(julianDate.jd(), target);
+  }
+
+  /**
+   Read a Julian date written by {@link #encode(JulianDate, ByteBuffer)}, from the current position of the source.
+   @throws java.nio.BufferUnderflowException if the source ends in the middle of the Julian date.
+   @throws IllegalArgumentException if the timescale is unknown to this codec, or the data is corrupt.
+  */
+  public JulianDate decodeJulianDate(ByteBuffer source) {
+    Timescale timescale = getTimescale(source);
+    return JulianDate.from(getDecimal(source), timescale);
+  }
+
+  /** The timescale code for timescales not in {@link TimescaleImpl}: {@value}. */
+  public static final int CUSTOM_TIMESCALE = 0xFF;
+
+  private final Timescale[] customTimescales;
+
+  private static final BinaryCodec STANDARD = new BinaryCodec(new Timescale[0]);
+  /** Indexed by the timescale code. Stored data depends on these codes: never reorder, and add new items only at the end. */
+  private static final TimescaleImpl[] TIMESCALES = {
+    TimescaleImpl.TAI, TimescaleImpl.TT, TimescaleImpl.GPS, TimescaleImpl.UTC, TimescaleImpl.UT1, TimescaleImpl.TDB
+  };
+  /** Indexed by the calendar code. As for {@link #TIMESCALES}. */
+  private static final Calendar[] CALENDARS = {Calendar.JULIAN, Calendar.GREGORIAN};
+  /** The codes, indexed by the ordinal of the enum constant. */
+  private static final int[] TIMESCALE_CODES = codes(TIMESCALES, TimescaleImpl.values().length);
+  private static final int[] CALENDAR_CODES = codes(CALENDARS, Calendar.values().length);
+
+  private BinaryCodec(Timescale[] customTimescales) {
+    this.customTimescales = customTimescales;
+  }
+
+  private void putTimescale(Timescale timescale, ByteBuffer target) {
+    if (timescale instanceof TimescaleImpl) {
+      target.put((byte)code((TimescaleImpl)timescale, TIMESCALE_CODES));
+    }
+    else {
+      target.put((byte)CUSTOM_TIMESCALE);
+      byte[] id = timescale.id().getBytes(StandardCharsets.UTF_8);
+      putVarLong(target, id.length);
+      target.put(id);
+    }
+  }
+
+  private static int[] codes(Enum<?>[] byCode, int numConstants) {
+    int[] res = new int[numConstants];
+    Arrays.fill(res, -1);
+    for(int code = 0; code < byCode.length; ++code) {
+      res[byCode[code].ordinal()] = code;
+    }
+    return res;
+  }
+
+  private static int code(Enum<?> item, int[] codes) {
+    int res = codes[item.ordinal()];
+    if (res < 0) {
+      throw new IllegalArgumentException("No binary code is defined for " + item);
+    }
+    return res;
+  }
+
+  private Timescale getTimescale(ByteBuffer source) {
+    int code = source.get() & 0xFF;
+    if (code < TIMESCALES.length) {
+      return TIMESCALES[code];
+    }
+    if (code != CUSTOM_TIMESCALE) {
+      throw new IllegalArgumentException("Unknown timescale code: " + code);
+    }
+    byte[] bytes = new byte[length(source)];
+    source.get(bytes);
+    String id = new String(bytes, StandardCharsets.UTF_8);
+    for(Timescale timescale : customTimescales) {
+      if (timescale.id().equals(id)) return timescale;
+    }
+    throw new IllegalArgumentException("Unknown custom timescale: " + id);
+  }
+
+  private static void putDecimal(BigDecimal val, ByteBuffer target) {
+    putVarLong(target, zigZag(val.scale()));
+    if (val.precision() <= 18) {
+      //the unscaled value is less than 10^18, so it fits in 62 bits
+      putVarLong(target, zigZag(val.scaleByPowerOfTen(val.scale()).longValue()) << 1);
+      return;
+    }
+    byte[] bytes = val.unscaledValue().toByteArray();
+    putVarLong(target, ((long)bytes.length << 1) | 1);
+    target.put(bytes);
+  }
+
+  private static BigDecimal getDecimal(ByteBuffer source) {
+    long zigZagScale = getVarLong(source);
+    if (zigZagScale > 0xFFFF_FFFFL) {
+      throw new IllegalArgumentException("Corrupt data: scale out of range.");
+    }
+    int scale = (int)unZigZag(zigZagScale);
+    long tag = getVarLong(source);
+    if ((tag & 1) == 0) {
+      return BigDecimal.valueOf(unZigZag(tag >>> 1), scale);
+    }
+    byte[] bytes = new byte[checkLength(tag >>> 1, source)];
+    source.get(bytes);
+    return new BigDecimal(new BigInteger(bytes), scale);
+  }
+
+  private static int length(ByteBuffer source) {
+    return checkLength(getVarLong(source), source);
+  }
+
+  /** Protect against corrupt data asking for huge arrays. */
+  private static int checkLength(long length, ByteBuffer source) {
+    if (length <= 0 || length > source.remaining()) {
+      throw new IllegalArgumentException("Corrupt data: length " + length + " with " + source.remaining() + " bytes remaining.");
+    }
+    return (int)length;
+  }
+
+  private static long zigZag(long val) {
+    return (val << 1) ^ (val >> 63);
+  }
+
+  private static long unZigZag(long val) {
+    return (val >>> 1) ^ -(val & 1);
+  }
+
+  /** The value is treated as unsigned. */
+  private static void putVarLong(ByteBuffer target, long val) {
+    while ((val & ~0x7FL) != 0) {
+      target.put((byte)((val & 0x7F) | 0x80));
+      val >>>= 7;
+    }
+    target.put((byte)val);
+  }
+
+  private static long getVarLong(ByteBuffer source) {
+    long res = 0;
+    for(int shift = 0; shift < 64; shift += 7) {
+      byte b = source.get();
+      res |= (long)(b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return res;
+    }
+    throw new IllegalArgumentException("Corrupt data: varint is too long.");
+  }
+}
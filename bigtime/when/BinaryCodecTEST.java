@@ -0,0 +1,117 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class BinaryCodecTEST {
+
+  @Test public void roundTripDateTime() {
+    roundTrip(DateTime.gregorianCalendar(2025, 1, 1, 1, 9, big("2.25"), TimescaleImpl.TT));
+    roundTrip(DateTime.gregorianCalendar(2025, 12, 31, 23, 59, big("59.999999999"), TimescaleImpl.UTC));
+    roundTrip(DateTime.gregorianCalendar(2025, 12, 31, 23, 59, big("59.000"), TimescaleImpl.GPS));
+    roundTrip(DateTime.gregorianCalendar(2025, 12, 31, 0, 0, big("3E+1"), TimescaleImpl.TAI));
+    roundTrip(DateTime.from(-4712, 1, 1, 12, 0, big("0"), Calendar.JULIAN, TimescaleImpl.TDB));
+    roundTrip(DateTime.from(Long.MIN_VALUE, 2, 29, 12, 0, big("1.5"), Calendar.JULIAN, TimescaleImpl.UT1));
+    roundTrip(DateTime.from(Long.MAX_VALUE, 12, 31, 12, 0, big("1.5"), Calendar.GREGORIAN, TimescaleImpl.UT1));
+    roundTrip(DateTime.gregorianCalendar(2025, 6, 30, 12, 30, big("45.1234567890123456"), TimescaleImpl.TT));
+    roundTrip(DateTime.gregorianCalendar(2025, 6, 30, 12, 30, big("45.12345678901234567890123456789012345678901234567890"), TimescaleImpl.TT));
+  }
+
+  @Test public void compact() {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    BinaryCodec.standard().encode(DateTime.gregorianCalendar(2025, 1, 1, 1, 9, big("2.25"), TimescaleImpl.TT), buffer);
+    assertEquals(10, buffer.position());
+  }
+
+  @Test public void roundTripJulianDate() {
+    roundTrip(JulianDate.from(big("2451545.0"), TimescaleImpl.TT));
+    roundTrip(JulianDate.from(big("-0.000000000000000000000000000001"), TimescaleImpl.TAI));
+    roundTrip(JulianDate.from(big("2460000.123456789012345678901234567890"), TimescaleImpl.TDB));
+  }
+
+  @Test public void sequence() {
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    BinaryCodec codec = BinaryCodec.standard();
+    Date date = Date.julian(1582, 10, 4);
+    Time time = Time.from(23, 59, big("59.5"), TimescaleImpl.UT1);
+    JulianDate jd = JulianDate.from(big("2451545.25"), TimescaleImpl.GPS);
+    codec.encode(date, buffer);
+    codec.encode(time, buffer);
+    codec.encode(jd, buffer);
+    buffer.flip();
+    assertEquals(date, codec.decodeDate(buffer));
+    assertEquals(time, codec.decodeTime(buffer));
+    assertEquals(jd, codec.decodeJulianDate(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test public void customTimescale() {
+    Timescale custom = new Timescale() {
+      @Override public String id() { return "LOCAL"; }
+    };
+    DateTime dt = DateTime.gregorianCalendar(2025, 1, 1, 0, 0, big(0), custom);
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    BinaryCodec.standard().encode(dt, buffer);
+    buffer.flip();
+    assertThrows(IllegalArgumentException.class, () -> BinaryCodec.standard().decodeDateTime(buffer.duplicate()));
+    DateTime decoded = BinaryCodec.withTimescales(custom).decodeDateTime(buffer);
+    assertSame(custom, decoded.time().timescale());
+  }
+
+  /** Stored data depends on these codes, so they must never change. */
+  @Test public void stableCodes() {
+    TimescaleImpl[] timescales = {TimescaleImpl.TAI, TimescaleImpl.TT, TimescaleImpl.GPS, TimescaleImpl.UTC, TimescaleImpl.UT1, TimescaleImpl.TDB};
+    assertEquals(TimescaleImpl.values().length, timescales.length);
+    for(int code = 0; code < timescales.length; ++code) {
+      ByteBuffer buffer = ByteBuffer.allocate(16);
+      BinaryCodec.standard().encode(JulianDate.from(big("2451545.0"), timescales[code]), buffer);
+      assertEquals(code, buffer.get(0));
+      buffer.flip();
+      assertEquals(timescales[code], BinaryCodec.standard().decodeJulianDate(buffer).timescale());
+    }
+    Calendar[] calendars = {Calendar.JULIAN, Calendar.GREGORIAN};
+    for(int code = 0; code < calendars.length; ++code) {
+      ByteBuffer buffer = ByteBuffer.allocate(16);
+      BinaryCodec.standard().encode(Date.from(2025, 1, 1, calendars[code]), buffer);
+      assertEquals(code, (buffer.getShort(buffer.position() - 2) & 0xFFFF) >>> 9);
+    }
+    //unknown codes
+    assertThrows(IllegalArgumentException.class, () -> BinaryCodec.standard().decodeJulianDate(ByteBuffer.wrap(new byte[] {6, 0, 0})));
+    assertThrows(IllegalArgumentException.class, () -> BinaryCodec.standard().decodeDate(ByteBuffer.wrap(new byte[] {0, 2 << 1, 0x21})));
+  }
+
+  @Test public void corrupt() {
+    assertThrows(BufferUnderflowException.class, () -> BinaryCodec.standard().decodeDateTime(ByteBuffer.wrap(new byte[] {1, 2})));
+    //month 0
+    assertThrows(IllegalArgumentException.class, () -> BinaryCodec.standard().decodeDate(ByteBuffer.wrap(new byte[] {0, 0, 1})));
+    //unknown timescale code
+    assertThrows(IllegalArgumentException.class, () -> BinaryCodec.standard().decodeJulianDate(ByteBuffer.wrap(new byte[] {50, 0, 0})));
+  }
+
+  private void roundTrip(DateTime dt) {
+    ByteBuffer buffer = ByteBuffer.allocate(128);
+    BinaryCodec.standard().encode(dt, buffer);
+    buffer.flip();
+    DateTime res = BinaryCodec.standard().decodeDateTime(buffer);
+    assertEquals(dt, res);
+    assertEquals(dt.seconds().scale(), res.seconds().scale());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  private void roundTrip(JulianDate jd) {
+    ByteBuffer buffer = ByteBuffer.allocate(128);
+    BinaryCodec.standard().encode(jd, buffer);
+    buffer.flip();
+    JulianDate res = BinaryCodec.standard().decodeJulianDate(buffer);
+    assertEquals(jd, res);
+    BigDecimal expected = jd.jd();
+    assertEquals(expected.scale(), res.jd().scale());
+  }
+}
@@ -4,11 +4,12 @@ import static bigtime.util.Consts.*;
 import static bigtime.util.Pad.*;
 import static bigtime.when.BigDecimalHelper.*;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.Month;
-import java.util.Objects;
 
 import bigtime.util.Check;
 
@@ -21,7 +22,7 @@ import bigtime.util.Check;
  <P>Here, comparison and equality operations treat the underlying {@link Calendar} as the most significant item.
  If you wish to compare the time order of dates from different calendars, you can do so using {@link #jd(Timescale)}.
 */
-public final class Date implements Comparable<Date> {
+public final class Date implements Comparable<Date>, Serializable {
   
   /**
    Factory method for a date in the given calendar.
@@ -30,17 +31,17 @@ public final class Date implements Comparable<Date> {
    @param day range [1,31], with an extra check according to the month-year, to account for leap years
   */
   public static Date from(long year, int month, int day, Calendar calendar) {
-    return new Date(year, month, day, calendar);
+    return validated(year, month, day, calendar);
   }
   
   /** As in the full factory method, but for {@link Calendar#GREGORIAN}.  */
   public static Date gregorian(long year, int month, int day) {
-    return new Date(year, month, day, Calendar.GREGORIAN);
+    return validated(year, month, day, Calendar.GREGORIAN);
   }
 
   /** As in the full factory method, but for {@link Calendar#JULIAN}. */
   public static Date julian(long year, int month, int day) {
-    return new Date(year, month, day, Calendar.JULIAN);
+    return validated(year, month, day, Calendar.JULIAN);
   }
   
   public long year() { return year; }
@@ -50,21 +51,19 @@ public final class Date implements Comparable<Date> {
   
   /** The day of the week corresponding to this {@link Date}, in its given {@link Calendar}. */
   public DayOfWeek weekday() {
-    //Explanatory Supplement 2006, page 603
-    DateTime dt = DateTime.from(this, Time.from(12, 0, BigDecimal.ZERO, TimescaleImpl.TAI));
-    BigDecimal jd = dt.toJulianDate().jd();
-    BigDecimal a = divideAndRemainder(jd.add(big(1)), big(7))[INTEGER_PART].multiply(big(7));
-    int b = integer(jd.add(big(2)).subtract(a)).intValue(); //rounds toward 0; 1..7 Sunday..Saturday
-    int day = b > 1 ? b - 1 : 7; //1..7 Monday..Sunday
-    return DayOfWeek.of(day);
-    /*
-    //Meeus 1991, page 65
-    DateTime dt = DateTime.from(this, Time.zero(TimescaleCommon.TAI));
-    BigDecimal jd = dt.toJulianDate().jd().add(big(1.5));
-    BigDecimal[] div = divideAndRemainder(jd, big(7));
-    int index = div[REMAINDER].intValue(); //0..6 = Sunday to Monday
-    return DayOfWeek.of(index + 1).minus(1); //Monday..Sunday = 1..7
-    */
+    return DayNumber.weekday(DayNumber.of(this));
+  }
+
+  /** 
+   The day of the week for each of the given dates. 
+   Element <em>i</em> of the result corresponds to <em>dates[i]</em>. 
+  */
+  public static DayOfWeek[] weekdays(Date[] dates) {
+    DayOfWeek[] res = new DayOfWeek[dates.length];
+    for(int i = 0; i < dates.length; ++i) {
+      res[i] = dates[i].weekday();
+    }
+    return res;
   }
 
   /** 
@@ -74,8 +73,7 @@ public final class Date implements Comparable<Date> {
    For that operation, you will need to use {@link DateTime} instead.
   */  
   public JulianDate jd(Timescale timescale) {
-    JulianDateConverter converter = JulianDateConverter.using(this.calendar);
-    return converter.toJulianDate(DateTime.from(this, Time.zero(timescale)));
+    return JulianDate.from(jdAtMidnight(), timescale);
   }
 
   /** 
@@ -87,37 +85,48 @@ public final class Date implements Comparable<Date> {
       throw new IllegalArgumentException("Calendar conversion aborted. Trying to convert to the same calendar: " + toCalendar);
     }
     //to avoid possible hard-to-spot rounding differences near 0h, temporarily add a wee bit of time to this date:
-    Time weeTime = Time.from(0, 5, BigDecimal.ZERO, TimescaleImpl.TT);
-    DateTime nonce = DateTime.from(this, weeTime);
-    JulianDate nonceJd = JulianDateConverter.using(this.calendar).toJulianDate(nonce);
+    DateTime nonce = DateTime.from(this, WEE_TIME);
+    JulianDate nonceJd = nonce.toJulianDate();
     DateTime converted = JulianDateConverter.using(toCalendar).toDateTime(nonceJd);
     return converted.date();
   }
 
   /*** The first day of the month corresponding to this {@link Date}. */
   public Date startOfMonth() {
-    return new Date(year, month, 1, calendar);
+    return trusted(year, month, 1, calendar);
   }
   
   /*** The last day of the month corresponding to this {@link Date}. */
   public Date endOfMonth() {
-    int lastDay = Month.of(month).length(calendar.isLeap(year));
-    return new Date(year, month, lastDay, calendar);
+    int lastDay = DayNumber.monthLength(year, month, calendar);
+    return trusted(year, month, lastDay, calendar);
   }
   
   /** The first day of the year corresponding to this {@link Date}. */
   public Date startOfYear() {
-    return new Date(year, Month.JANUARY.getValue(), 1, calendar);
+    return trusted(year, Month.JANUARY.getValue(), 1, calendar);
   }
   
   /** The last day of the year corresponding to this {@link Date}. */
   public Date endOfYear() {
-    return new Date(year, Month.DECEMBER.getValue(), 31, calendar);
+    return trusted(year, Month.DECEMBER.getValue(), 31, calendar);
   }
   
   /** With January 1 being day 1, and so on. */
   public int dayOfYear() {
-    return integer(calendar.daysFromJan0(year, month, big(day))).intValue();
+    return DayNumber.daysBeforeMonth(year, month, calendar) + day;
+  }
+  
+  /** 
+   The day of the year for each of the given dates. 
+   Element <em>i</em> of the result corresponds to <em>dates[i]</em>. 
+  */
+  public static int[] daysOfYear(Date[] dates) {
+    int[] res = new int[dates.length];
+    for(int i = 0; i < dates.length; ++i) {
+      res[i] = dates[i].dayOfYear();
+    }
+    return res;
   }
   
   /** Less-than comparison. */
@@ -152,14 +161,37 @@ public final class Date implements Comparable<Date> {
    @param other can have any calendar
    */
   public long daysFrom(Date other) {
-    Time time = Time.from(12, 0, BigDecimal.ZERO, TimescaleImpl.TAI); //12h has integral Julian date
-    DateTime dt_a = DateTime.from(this, time);
-    JulianDate jd_a = JulianDateConverter.using(this.calendar).toJulianDate(dt_a);
-    
-    DateTime dt_b = DateTime.from(other, time);
-    JulianDate jd_b = JulianDateConverter.using(other.calendar).toJulianDate(dt_b);
-    BigDecimal res = jd_a.jd().subtract(jd_b.jd()); 
-    return res.longValueExact(); //exception if any fractional part
+    return DayNumber.of(this) - DayNumber.of(other);
+  }
+
+  /**
+   Return the number of days between each of the given dates and another date, as in {@link #daysFrom(Date)}.
+   Element <em>i</em> of the result corresponds to <em>dates[i]</em>.
+   @param other can have any calendar
+  */
+  public static long[] daysFrom(Date[] dates, Date other) {
+    long otherDayNumber = DayNumber.of(other);
+    long[] res = new long[dates.length];
+    for(int i = 0; i < dates.length; ++i) {
+      res[i] = DayNumber.of(dates[i]) - otherDayNumber;
+    }
+    return res;
+  }
+
+  /**
+   Return the number of days between pairs of dates, as in {@link #daysFrom(Date)}.
+   Element <em>i</em> of the result is <em>dates[i].daysFrom(others[i])</em>.
+   @param others same length as <em>dates</em>; the dates can have any calendar
+  */
+  public static long[] daysFrom(Date[] dates, Date[] others) {
+    if (dates.length != others.length) {
+      throw new IllegalArgumentException("Arrays must have the same length: " + dates.length + ", " + others.length);
+    }
+    long[] res = new long[dates.length];
+    for(int i = 0; i < dates.length; ++i) {
+      res[i] = DayNumber.of(dates[i]) - DayNumber.of(others[i]);
+    }
+    return res;
   }
 
   /**
@@ -167,22 +199,43 @@ public final class Date implements Comparable<Date> {
    If days is negative, then a subtraction occurs.
   */
   public Date plusMinusDays(int days) {
-    //just borrow the full implementation of this, in {@link DateTime}
-    DateTime dt = DateTime.from(this, Time.zero(TimescaleImpl.TT));
-    DateTime dtNew = dt.plusMinusDays(big(days), 0, RoundingMode.HALF_EVEN);
-    return dtNew.date();
+    return DayNumber.toDate(DayNumber.of(this) + days, calendar);
   }
   
-  /** Synonym for <em>plusMinusDays(1)</em>. */
+  /** The day after this {@link Date}. Same as <em>plusMinusDays(1)</em>. */
   public Date next() {
-    return plusMinusDays(1);
+    if (day < DayNumber.monthLength(year, month, calendar)) {
+      return trusted(year, month, day + 1, calendar); //by far the most common case
+    }
+    if (month < 12) {
+      return trusted(year, month + 1, 1, calendar);
+    }
+    return trusted(year + 1, 1, 1, calendar);
   }
   
-  /** Synonym for <em>plusMinusDays(-1)</em>. */
+  /** The day before this {@link Date}. Same as <em>plusMinusDays(-1)</em>. */
   public Date previous() {
-    return plusMinusDays(-1);
+    if (day > 1) {
+      return trusted(year, month, day - 1, calendar); //by far the most common case
+    }
+    if (month > 1) {
+      return trusted(year, month - 1, DayNumber.monthLength(year, month - 1, calendar), calendar);
+    }
+    return trusted(year - 1, 12, 31, calendar);
   }
   
+  private static final long serialVersionUID = 1L;
+
+  /** Serialized in a compact binary form. See {@link SerialForm}. */
+  private Object writeReplace() {
+    return new SerialForm(this);
+  }
+
+  /** Instances are always serialized through {@link SerialForm}. */
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized through SerialForm only.");
+  }
+
   /** Intended for logging only. Example: <em>2025-01-01 GR</em> */
   @Override public String toString() {
     String sep = "-";
@@ -194,16 +247,20 @@ public final class Date implements Comparable<Date> {
     if (this == aThat) return true;
     if (!(aThat instanceof Date)) return false;
     Date that = (Date)aThat;
-    for(int i = 0; i < this.getSigFields().length; ++i){
-      if (!Objects.equals(this.getSigFields()[i], that.getSigFields()[i])){
-        return false;
-      }
-    }
-    return true;
+    return 
+      this.calendar == that.calendar && 
+      this.year == that.year && 
+      this.month == that.month && 
+      this.day == that.day
+    ;
   }  
   
   @Override public int hashCode() {
-    return Objects.hash(getSigFields());
+    int res = calendar.hashCode();
+    res = 31 * res + Long.hashCode(year);
+    res = 31 * res + month;
+    res = 31 * res + day;
+    return res;
   }
 
   /** This implementation treats the {@link Calendar} as being the most significant item in the comparison. */
@@ -213,33 +270,66 @@ public final class Date implements Comparable<Date> {
     int comparison = this.calendar.compareTo(that.calendar);
     if (comparison != EQUAL) return comparison;
 
-    comparison = this.year.compareTo(that.year);
+    comparison = Long.compare(this.year, that.year);
     if (comparison != EQUAL) return comparison;
     
-    comparison = this.month.compareTo(that.month);
+    comparison = Integer.compare(this.month, that.month);
     if (comparison != EQUAL) return comparison;
     
-    comparison = this.day.compareTo(that.day);
+    comparison = Integer.compare(this.day, that.day);
     if (comparison != EQUAL) return comparison;
 
     return EQUAL;
   }
   
-  private Calendar calendar;
-  private Long year;
-  private Integer month, day;
+  private final Calendar calendar;
+  private final long year;
+  private final int month, day;
+  /** Lazy. The Julian date at 0h, used by jd(Timescale). A race to set this field is harmless, since BigDecimal is immutable. */
+  private BigDecimal jdAtMidnight;
   
+  private static final Time WEE_TIME = Time.from(0, 5, BigDecimal.ZERO, TimescaleImpl.TT);
+  
+  /** 
+   As in {@link #from(long, int, int, Calendar)}, but with no validation of the month and day.
+   For values that are known to be valid, because they were calculated by this library.
+   Return a shared instance if the date is in the window of {@link DateCache}, or a new object otherwise.
+  */
+  static Date trusted(long year, int month, int day, Calendar calendar) {
+    Date res = DateCache.get(year, month, day, calendar);
+    if (res == null) {
+      res = DateCache.put(new Date(year, month, day, calendar));
+    }
+    return res;
+  }
+  
+  /** A date found in the cache is always valid, since only valid dates are placed in the cache. */
+  private static Date validated(long year, int month, int day, Calendar calendar) {
+    Date res = DateCache.get(year, month, day, calendar);
+    if (res == null) {
+      Check.range(month, 1, 12);
+      Check.range(day, 1, DayNumber.monthLength(year, month, calendar));
+      res = DateCache.put(new Date(year, month, day, calendar));
+    }
+    return res;
+  }
+  
+  /** No validation is done here. */
   private Date(long year, int month, int day, Calendar calendar) {
-    Check.range(month, 1, 12);
-    Check.range(day, 1, Month.of(month).length(calendar.isLeap(year)));
     this.year = year;
     this.month = month;
     this.day = day;
     this.calendar = calendar;
   }
   
-  private Object[] getSigFields() {
-    Object[] res = {calendar, year, month, day};
+  /** The Julian date at 0h, with no timescale. Calculated only once, and then cached. */
+  private BigDecimal jdAtMidnight() {
+    BigDecimal res = jdAtMidnight;
+    if (res == null) {
+      JulianDateConverter converter = JulianDateConverter.using(calendar);
+      res = converter.toJulianDate(year, month, big(day), TimescaleImpl.TAI).jd();
+      jdAtMidnight = res;
+    }
     return res;
   }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package bigtime.when;
+
+/**
+ Canonical, shared {@link Date} objects for a window of years.
+
+ <P>Most dates used in practice fall in a fairly small range of years.
+ Inside that window, the factory methods of {@link Date} return a shared instance, instead of
+ creating a new object each time. The shared instances are created only when first needed.
+ Outside that window, a new object is always created.
+
+ <P>The window of years is [1900, 2100] by default.
+ It can be changed by setting System properties named <em>date-cache-min</em> and <em>date-cache-max</em>,
+ to integer values. Those properties are read only once, when this class is loaded.
+ If the max is less than the min, then nothing is cached.
+*/
+final class DateCache {
+
+  /**
+   Return the cached {@link Date} for the given fields, or null if the date is outside the window,
+   or hasn't been cached yet.
+   The month and day are assumed to be in the ranges [1,12] and [1,31]; other values return null.
+  */
+  static Date get(long year, int month, int day, Calendar calendar) {
+    int idx = index(year, month, day);
+    return idx < 0 ? null : slots(calendar)[idx];
+  }
+
+  /** Remember the given {@link Date}, if it's in the window. Return the canonical instance. */
+  static Date put(Date date) {
+    int idx = index(date.year(), date.month(), date.day());
+    if (idx < 0) return date;
+    Date[] slots = slots(date.calendar());
+    Date existing = slots[idx];
+    if (existing != null) return existing;
+    //a race here is harmless: Date is immutable, with final fields, and the objects are all equal
+    slots[idx] = date;
+    return date;
+  }
+
+  /** {@value} */
+  static final String MIN_YEAR_SYS_PROPERTY = "date-cache-min";
+
+  /** {@value} */
+  static final String MAX_YEAR_SYS_PROPERTY = "date-cache-max";
+
+  /** The first year in the window. */
+  static final long MIN_YEAR = YearStartTable.yearFromSysProperty(MIN_YEAR_SYS_PROPERTY, 1900);
+
+  /** The last year in the window. */
+  static final long MAX_YEAR = YearStartTable.yearFromSysProperty(MAX_YEAR_SYS_PROPERTY, 2100);
+
+  /** A simple, sparse layout: 12 months of 31 days for each year. */
+  private static final int SLOTS_PER_YEAR = 12 * 31;
+
+  private static final Date[] GREGORIAN_SLOTS = new Date[numSlots()];
+  private static final Date[] JULIAN_SLOTS = new Date[numSlots()];
+
+  private static Date[] slots(Calendar calendar) {
+    return Calendar.GREGORIAN == calendar ? GREGORIAN_SLOTS : JULIAN_SLOTS;
+  }
+
+  private static int numSlots() {
+    return (int)Math.max((MAX_YEAR - MIN_YEAR + 1) * SLOTS_PER_YEAR, 0);
+  }
+
+  /** Return -1 if the date is outside the window. */
+  private static int index(long year, int month, int day) {
+    if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > 31) return -1;
+    return (int)(year - MIN_YEAR) * SLOTS_PER_YEAR + (month - 1) * 31 + (day - 1);
+  }
+}
@@ -0,0 +1,179 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ An immutable range of consecutive dates, in a single {@link Calendar}.
+ Both ends of the range are included.
+
+ <P>Iterating over a range doesn't do any Julian date calculations.
+ Each date is found from the one before it, by incrementing the day, and carrying over
+ into the month and the year when needed.
+
+ <P>The {@link #spliterator()} can split a range into two halves, using Julian day numbers.
+ That lets you process large ranges with a parallel stream:
+ <pre>DateRange.of(start, end).stream().parallel()...</pre>
+*/
+public final class DateRange implements Iterable<Date> {
+
+  /**
+   Factory method.
+   @param first the first date in the range
+   @param last the last date in the range, in the same {@link Calendar} as the first date, and not before it
+  */
+  public static DateRange of(Date first, Date last) {
+    return new DateRange(first, last);
+  }
+
+  /** The first date in this range (inclusive). */
+  public Date first() {
+    return first;
+  }
+
+  /** The last date in this range (inclusive). It may be the same as {@link #first()}. */
+  public Date last() {
+    return last;
+  }
+
+  /** The calendar of all dates in this range. */
+  public Calendar calendar() {
+    return first.calendar();
+  }
+
+  /** The number of dates in this range. Always 1 or more. */
+  public long size() {
+    return last.daysFrom(first) + 1;
+  }
+
+  /** Return <em>true</em> only if the given date is in this range. The date must have the same calendar as this range. */
+  public boolean contains(Date date) {
+    return first.calendar() == date.calendar() && first.lteq(date) && date.lteq(last);
+  }
+
+  /** Iterate over the dates in this range, in order, starting with {@link #first()}. */
+  @Override public Iterator<Date> iterator() {
+    return new Iterator<Date>() {
+      @Override public boolean hasNext() {
+        return next != null;
+      }
+      @Override public Date next() {
+        if (next == null) throw new NoSuchElementException();
+        Date res = next;
+        next = res.equals(last) ? null : res.next();
+        return res;
+      }
+      private Date next = first;
+    };
+  }
+
+  /** A splittable {@link Spliterator} over the dates in this range. */
+  @Override public Spliterator<Date> spliterator() {
+    return new DateSpliterator(first, DayNumber.of(first), DayNumber.of(last));
+  }
+
+  /** A sequential stream of the dates in this range. Call <em>parallel()</em> on the result for parallel processing. */
+  public Stream<Date> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /** Intended for logging only. Example: <em>2025-01-01 GR..2025-12-31 GR</em> */
+  @Override public String toString() {
+    return first + ".." + last;
+  }
+
+  @Override public boolean equals(Object aThat) {
+    if (this == aThat) return true;
+    if (!(aThat instanceof DateRange)) return false;
+    DateRange that = (DateRange)aThat;
+    return this.first.equals(that.first) && this.last.equals(that.last);
+  }
+
+  @Override public int hashCode() {
+    return 31 * first.hashCode() + last.hashCode();
+  }
+
+  private final Date first;
+  private final Date last;
+
+  private DateRange(Date first, Date last) {
+    if (first.calendar() != last.calendar()) {
+      throw new IllegalArgumentException("The first and last dates of a range must have the same calendar: " + first + ", " + last);
+    }
+    if (first.compareTo(last) > EQUAL) {
+      throw new IllegalArgumentException("The first date of a range can't come after the last date: " + first + ", " + last);
+    }
+    this.first = first;
+    this.last = last;
+  }
+
+  /**
+   Walks the dates from a current date up to an end day number (inclusive).
+   The current date and its day number are always kept in step.
+  */
+  private static final class DateSpliterator implements Spliterator<Date> {
+    DateSpliterator(Date current, long currentDayNumber, long lastDayNumber) {
+      this.current = current;
+      this.currentDayNumber = currentDayNumber;
+      this.lastDayNumber = lastDayNumber;
+    }
+
+    @Override public boolean tryAdvance(Consumer<? super Date> action) {
+      if (currentDayNumber > lastDayNumber) return false;
+      Date res = current;
+      advance();
+      action.accept(res);
+      return true;
+    }
+
+    @Override public void forEachRemaining(Consumer<? super Date> action) {
+      while (currentDayNumber <= lastDayNumber) {
+        Date res = current;
+        advance();
+        action.accept(res);
+      }
+    }
+
+    /** Hand the first half to a new spliterator, and keep the second half here. The first half is a prefix, as required for ORDERED. */
+    @Override public Spliterator<Date> trySplit() {
+      long remaining = estimateSize();
+      if (remaining < 2) return null;
+      long mid = currentDayNumber + remaining / 2;
+      Spliterator<Date> res = new DateSpliterator(current, currentDayNumber, mid - 1);
+      current = DayNumber.toDate(mid, current.calendar());
+      currentDayNumber = mid;
+      return res;
+    }
+
+    @Override public long estimateSize() {
+      return lastDayNumber - currentDayNumber + 1;
+    }
+
+    @Override public int characteristics() {
+      return ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+    }
+
+    /** The dates are in their natural order. */
+    @Override public Comparator<? super Date> getComparator() {
+      return null;
+    }
+
+    private Date current;
+    private long currentDayNumber;
+    private long lastDayNumber;
+
+    private void advance() {
+      ++currentDayNumber;
+      if (currentDayNumber <= lastDayNumber) {
+        current = current.next();
+      }
+    }
+  }
+}
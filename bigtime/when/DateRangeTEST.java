@@ -0,0 +1,85 @@
+package bigtime.when;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class DateRangeTEST {
+
+  @Test public void iterateAcrossYears() {
+    for(Calendar calendar : Calendar.values()) {
+      Date first = Date.from(1899, 11, 15, calendar);
+      Date last = Date.from(1904, 3, 2, calendar);
+      DateRange range = DateRange.of(first, last);
+      List<Date> dates = new ArrayList<>();
+      range.forEach(dates::add);
+      assertEquals(range.size(), dates.size());
+      assertEquals(first, dates.get(0));
+      assertEquals(last, dates.get(dates.size() - 1));
+      for(int i = 1; i < dates.size(); ++i) {
+        assertEquals(1L, dates.get(i).daysFrom(dates.get(i - 1)));
+        assertEquals(dates.get(i - 1).plusMinusDays(1), dates.get(i));
+      }
+    }
+  }
+
+  @Test public void singleDay() {
+    Date date = Date.gregorian(2024, 2, 29);
+    DateRange range = DateRange.of(date, date);
+    assertEquals(1L, range.size());
+    assertEquals(List.of(date), range.stream().collect(Collectors.toList()));
+    assertNull(range.spliterator().trySplit());
+  }
+
+  @Test public void parallelStreamKeepsOrder() {
+    DateRange range = DateRange.of(Date.gregorian(1700, 1, 1), Date.gregorian(2300, 12, 31));
+    List<Date> sequential = new ArrayList<>();
+    range.forEach(sequential::add);
+    List<Date> parallel = range.stream().parallel().collect(Collectors.toList());
+    assertEquals(sequential, parallel);
+  }
+
+  @Test public void split() {
+    DateRange range = DateRange.of(Date.julian(-1, 12, 1), Date.julian(0, 3, 10));
+    Spliterator<Date> b = range.spliterator();
+    Spliterator<Date> a = b.trySplit(); //the prefix
+    assertNotNull(b);
+    assertEquals(range.size(), a.estimateSize() + b.estimateSize());
+    List<Date> firstHalf = new ArrayList<>();
+    a.forEachRemaining(firstHalf::add);
+    List<Date> secondHalf = new ArrayList<>();
+    b.forEachRemaining(secondHalf::add);
+    assertEquals(range.first(), firstHalf.get(0));
+    assertEquals(firstHalf.get(firstHalf.size() - 1).next(), secondHalf.get(0));
+    assertEquals(range.last(), secondHalf.get(secondHalf.size() - 1));
+  }
+
+  @Test public void contains() {
+    DateRange range = DateRange.of(Date.gregorian(2025, 1, 1), Date.gregorian(2025, 12, 31));
+    assertTrue(range.contains(Date.gregorian(2025, 6, 15)));
+    assertTrue(range.contains(Date.gregorian(2025, 12, 31)));
+    assertFalse(range.contains(Date.gregorian(2026, 1, 1)));
+    assertFalse(range.contains(Date.julian(2025, 6, 15)));
+  }
+
+  @Test public void fails() {
+    assertThrows(IllegalArgumentException.class, () -> DateRange.of(Date.gregorian(2025, 1, 2), Date.gregorian(2025, 1, 1)));
+    assertThrows(IllegalArgumentException.class, () -> DateRange.of(Date.gregorian(2025, 1, 1), Date.julian(2025, 2, 1)));
+  }
+
+  @Test public void plusMinusDaysFarAway() {
+    for(Calendar calendar : Calendar.values()) {
+      Date date = Date.from(-50_000, 3, 1, calendar);
+      long days = 36_000_000L;
+      Date later = date.plusMinusDays((int)days);
+      assertEquals(days, later.daysFrom(date));
+      assertEquals(date, later.plusMinusDays((int)-days));
+    }
+  }
+}
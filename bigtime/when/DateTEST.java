@@ -112,6 +112,34 @@ public final class DateTEST {
     daysFrom(1582, 10, 15, Calendar.GREGORIAN, 1582, 10, 5, Calendar.JULIAN, 0);
   }
 
+  @Test public void bulk() {
+    Date[] dates = {Date.gregorian(2000, 1, 1), Date.gregorian(1954, 6, 30), Date.julian(-4712, 1, 1), Date.gregorian(2024, 12, 31)};
+    Date other = Date.gregorian(2000, 1, 1);
+    DayOfWeek[] weekdays = Date.weekdays(dates);
+    int[] daysOfYear = Date.daysOfYear(dates);
+    long[] daysFromOther = Date.daysFrom(dates, other);
+    long[] daysFromSelf = Date.daysFrom(dates, dates);
+    for(int i = 0; i < dates.length; ++i) {
+      assertEquals(dates[i].weekday(), weekdays[i]);
+      assertEquals(dates[i].dayOfYear(), daysOfYear[i]);
+      assertEquals(dates[i].daysFrom(other), daysFromOther[i]);
+      assertEquals(0L, daysFromSelf[i]);
+    }
+    assertEquals(366, daysOfYear[3]);
+    assertEquals(-2_451_545L, daysFromOther[2]); //JD 0 starts on Julian -4712-01-01
+    assertThrows(IllegalArgumentException.class, () -> Date.daysFrom(dates, new Date[1]));
+  }
+
+  @Test public void sharedInstances() {
+    assertSame(Date.gregorian(2025, 3, 1), Date.gregorian(2025, 2, 28).next());
+    assertSame(Date.julian(1950, 1, 1), Date.from(1950, 1, 1, Calendar.JULIAN));
+    assertNotSame(Date.gregorian(2025, 1, 1), Date.julian(2025, 1, 1));
+    //outside the window: equal, but not the same object
+    assertEquals(Date.gregorian(3000, 1, 1), Date.gregorian(3000, 1, 1));
+    assertNotSame(Date.gregorian(3000, 1, 1), Date.gregorian(3000, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> Date.gregorian(2025, 2, 30));
+  }
+
   /** This tests in both directions. */
   private void daysFrom(long y_a, int m_a, int d_a, Calendar cal_a, long y_b, int m_b, int d_b, Calendar cal_b, long expected) {
     Date a = Date.from(y_a, m_a, d_a, cal_a);
@@ -3,13 +3,17 @@ package bigtime.when;
 import static bigtime.util.Consts.*;
 import static bigtime.when.BigDecimalHelper.*;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Objects;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 
 /** Immutable data-carrier for date and time information. */
-public final class DateTime implements Comparable<DateTime> {
+public final class DateTime implements Comparable<DateTime>, Serializable {
   
   /**
    Factory method for a date-time in the given calendar.
@@ -68,9 +72,17 @@ public final class DateTime implements Comparable<DateTime> {
     return big(date.day()).add(time.fraction());
   }
   
-  /** Convert this {@link DateTime} to a {@link JulianDate}. */
+  /** 
+   Convert this {@link DateTime} to a {@link JulianDate}. 
+   The result is calculated only once, and then cached. 
+  */
   public JulianDate toJulianDate() {
-    return JulianDateConverter.using(date.calendar()).toJulianDate(this);
+    JulianDate res = julianDate;
+    if (res == null) {
+      res = JulianDateConverter.using(date.calendar()).toJulianDate(this);
+      julianDate = res;
+    }
+    return res;
   }
 
   /** See {@link Timescale#convertTo(Timescale, DateTime)}. */
@@ -86,17 +98,51 @@ public final class DateTime implements Comparable<DateTime> {
   */
   public DateTime roundSeconds(int numPlaces, RoundingMode roundingMode) {
     DateTime res = null;
-    RoundSeconds rounder = RoundSeconds.to(numPlaces);
+    RoundSeconds rounder = RoundSeconds.to(numPlaces, roundingMode);
     RoundSeconds.Result rounded = rounder.apply(seconds());
     if (rounded.overflows()) {
       res = Odometer.rollover(this);
     }
     else {
-      res = new DateTime(date(), Time.from(time.hour(), time.minute(), rounded.val(), time.timescale()));
+      res = new DateTime(date(), Time.trusted(time.hour(), time.minute(), rounded.val(), time.timescale()));
     }
     return res;
   }
 
+  /**
+   Truncate this {@link DateTime} to a whole number of units of time since 0h, and return a new {@link DateTime}.
+   For example, truncating to 15 minutes changes 10:44:59.9 to 10:30:00.
+   The date is never changed.
+   Retains the {@link Calendar} and {@link Timescale} attached to {@link #date()} and {@link #time()}, respectively.
+   @param unitSeconds the length of the unit, in seconds. 
+   It must divide a day of 86_400 seconds evenly, so that each day starts a new unit. 
+   Examples: 0.001, 1, 7.5, 60, 900, 3600, 86400.
+  */
+  public DateTime truncatedTo(BigDecimal unitSeconds) {
+    return toUnit(unitSeconds, RoundingMode.FLOOR);
+  }
+  
+  /** As in {@link #truncatedTo(BigDecimal)}, for a unit from {@link ChronoUnit#NANOS} to {@link ChronoUnit#DAYS}. */
+  public DateTime truncatedTo(ChronoUnit unit) {
+    return truncatedTo(unitSeconds(unit));
+  }
+  
+  /**
+   Round this {@link DateTime} to a whole number of units of time since 0h, and return a new {@link DateTime}.
+   For example, rounding 23:59:31 to the nearest minute results in 0h on the next day.
+   In such border cases, the rounding forces a 'rollover' onto the day, month, and year.
+   Retains the {@link Calendar} and {@link Timescale} attached to {@link #date()} and {@link #time()}, respectively.
+   @param unitSeconds as in {@link #truncatedTo(BigDecimal)}.
+  */
+  public DateTime roundedTo(BigDecimal unitSeconds, RoundingMode roundingMode) {
+    return toUnit(unitSeconds, roundingMode);
+  }
+  
+  /** As in {@link #roundedTo(BigDecimal, RoundingMode)}, for a unit from {@link ChronoUnit#NANOS} to {@link ChronoUnit#DAYS}. */
+  public DateTime roundedTo(ChronoUnit unit, RoundingMode roundingMode) {
+    return roundedTo(unitSeconds(unit), roundingMode);
+  }
+  
   /** 
    Return a new {@link DateTime} which is a given number of days from this {@link DateTime}.
    Retains the {@link Calendar} and {@link Timescale} attached to {@link #date()} and {@link #time()}, respectively. 
@@ -104,7 +150,7 @@ public final class DateTime implements Comparable<DateTime> {
    @param roundingMode used when rounding the seconds field. 
   */
   public DateTime plusMinusDays(BigDecimal days, int numPlaces, RoundingMode roundingMode) {
-    JulianDate jd = JulianDateConverter.using(this.date().calendar()).toJulianDate(this);
+    JulianDate jd = toJulianDate();
     JulianDate jdNew = JulianDate.from(jd.jd().add(days), this.time().timescale());
     return JulianDateConverter.using(this.date().calendar()).toDateTime(jdNew).roundSeconds(numPlaces, roundingMode);
   }
@@ -114,10 +160,41 @@ public final class DateTime implements Comparable<DateTime> {
    Similar to {@link #plusMinusDays(BigDecimal)}.
   */
   public DateTime plusMinusSeconds(BigDecimal seconds, int numPlaces, RoundingMode roundingMode) {
+    if (time.nanosOfDay() != Time.NOT_NANOS && seconds.scale() <= Time.MAX_NANOS_SCALE && seconds.abs().compareTo(MAX_NANOS_SECONDS) <= 0) {
+      //the common case: exact long arithmetic on nanoseconds
+      long total = time.nanosOfDay() + seconds.movePointRight(Time.MAX_NANOS_SCALE).longValueExact();
+      int days = (int)Math.floorDiv(total, Time.NANOS_PER_DAY);
+      int scale = Math.max(Math.max(time.seconds().scale(), seconds.scale()), 0);
+      Time newTime = Time.ofNanos(Math.floorMod(total, Time.NANOS_PER_DAY), scale, time.timescale());
+      Date newDate = days == 0 ? date : date.plusMinusDays(days);
+      return new DateTime(newDate, newTime).roundSeconds(numPlaces, roundingMode);
+    }
     BigDecimal days = divide(seconds, big(SECONDS_PER_DAY));
     return plusMinusDays(days, numPlaces, roundingMode);
   }
 
+  /** 
+   As in {@link #plusMinusDays(BigDecimal, int, RoundingMode)}, but with all intermediate values 
+   bounded by the given {@link Precision}.
+   The seconds field of the result is rounded according to the given {@link Precision}.
+  */
+  public DateTime plusMinusDays(BigDecimal days, Precision precision) {
+    JulianDateConverter converter = JulianDateConverter.using(this.date().calendar());
+    BigDecimal fractionalDay = big(date.day()).add(time.fraction(precision));
+    JulianDate jd = converter.toJulianDate(year(), month(), fractionalDay, time.timescale());
+    JulianDate jdNew = JulianDate.from(precision.bounded(jd.jd().add(days)), time.timescale());
+    return converter.toDateTime(jdNew).roundSeconds(precision.numPlaces(), precision.roundingMode());
+  }
+  
+  /** 
+   As in {@link #plusMinusSeconds(BigDecimal, int, RoundingMode)}, but with all intermediate values 
+   bounded by the given {@link Precision}.
+   The seconds field of the result is rounded according to the given {@link Precision}.
+  */
+  public DateTime plusMinusSeconds(BigDecimal seconds, Precision precision) {
+    return plusMinusDays(precision.secondsToDays(seconds), precision);
+  }
+
   /**
    Return the number of (fractional) days between this {@link DateTime} and the given {@link DateTime}.
    @param that can use a different calendar than the one used by this {@link DateTime}!
@@ -125,17 +202,37 @@ public final class DateTime implements Comparable<DateTime> {
    @return a positive result if this date is after <em>that</em> date, negative if this date is before <em>that</em> date. 
   */
   public BigDecimal daysFrom(DateTime that, int numPlaces, RoundingMode roundingMode) {
+    Long nanos = nanosFrom(that);
+    if (nanos != null) {
+      return big(nanos).divide(big(Time.NANOS_PER_DAY), numPlaces, roundingMode);
+    }
     BigDecimal res = daysFromUnrounded(that);
     return round(res, numPlaces, roundingMode);
   }
   
   /** As in {@link #daysFrom(DateTime, int, RoundingMode)}, but return fractional seconds. */
   public BigDecimal secondsFrom(DateTime that, int numPlaces, RoundingMode roundingMode) {
+    Long nanos = nanosFrom(that);
+    if (nanos != null) {
+      return round(BigDecimal.valueOf(nanos, Time.MAX_NANOS_SCALE), numPlaces, roundingMode);
+    }
     BigDecimal daysFrom = daysFromUnrounded(that);
     BigDecimal res = daysFrom.multiply(big(SECONDS_PER_DAY));
     return round(res, numPlaces, roundingMode);
   }
 
+  private static final long serialVersionUID = 1L;
+
+  /** Serialized in a compact binary form. See {@link SerialForm}. */
+  private Object writeReplace() {
+    return new SerialForm(this);
+  }
+
+  /** Instances are always serialized through {@link SerialForm}. */
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized through SerialForm only.");
+  }
+
   /** Intended for logging only. 2025-01-01 01:01:01 */
   @Override public String toString() {
     return date.toString() + " " + time.toString(); 
@@ -145,16 +242,11 @@ public final class DateTime implements Comparable<DateTime> {
     if (this == aThat) return true;
     if (!(aThat instanceof DateTime)) return false;
     DateTime that = (DateTime)aThat;
-    for(int i = 0; i < this.getSigFields().length; ++i){
-      if (!Objects.equals(this.getSigFields()[i], that.getSigFields()[i])){
-        return false;
-      }
-    }
-    return true;
+    return this.date.equals(that.date) && this.time.equals(that.time);
   }  
   
   @Override public int hashCode() {
-    return Objects.hash(getSigFields());
+    return 31 * date.hashCode() + time.hashCode();
   }
   
   @Override public int compareTo(DateTime that) {
@@ -170,22 +262,101 @@ public final class DateTime implements Comparable<DateTime> {
     return EQUAL;
   }
 
-  private Date date;
-  private Time time;
+  private final Date date;
+  private final Time time;
+  /** 
+   Lazy. A race to set this field is harmless: the value is always the same, and a {@link JulianDate} 
+   is immutable, with final fields, so it's always seen fully constructed by other threads. 
+  */
+  private JulianDate julianDate;
   
   private DateTime(Date date, Time time) {
     this.date = date;
     this.time = time;
   }
   
-  private Object[] getSigFields() {
-    Object[] res = {date, time};
-    return res;
+  private static final int SECONDS_PER_HOUR = MINUTES_PER_HOUR * SECONDS_PER_MINUTE;
+  private static final BigDecimal SECONDS_IN_A_DAY = big(SECONDS_PER_DAY);
+  
+  /** 
+   Bounds the common case of long arithmetic on nanoseconds: {@value} days, about 270 years. 
+   Beyond that, the nanoseconds could overflow a long.
+  */
+  private static final long MAX_NANOS_DAYS = 100_000L;
+  private static final BigDecimal MAX_NANOS_SECONDS = big(MAX_NANOS_DAYS * SECONDS_PER_DAY);
+  
+  /**
+   The exact number of nanoseconds from the given {@link DateTime} to this one.
+   Returns null if either time has more than 9 decimal places in its seconds, or if the dates are too far apart.
+   Like the Julian dates used by the general case, this ignores the timescales.
+  */
+  private Long nanosFrom(DateTime that) {
+    if (this.time.nanosOfDay() == Time.NOT_NANOS || that.time.nanosOfDay() == Time.NOT_NANOS) return null;
+    long days = this.date.daysFrom(that.date);
+    if (Math.abs(days) > MAX_NANOS_DAYS) return null;
+    return days * Time.NANOS_PER_DAY + (this.time.nanosOfDay() - that.time.nanosOfDay());
+  }
+  
+  /** Truncation is rounding with {@link RoundingMode#FLOOR}, since the time of day is never negative. */
+  private DateTime toUnit(BigDecimal unitSeconds, RoundingMode roundingMode) {
+    BigDecimal unit = unitSeconds.scale() < 0 ? unitSeconds.setScale(0) : unitSeconds; //3.6E+3 -> 3600
+    if (unit.signum() <= 0 || SECONDS_IN_A_DAY.remainder(unit).signum() != 0) {
+      throw new IllegalArgumentException("The unit of time must be positive, and divide a day of " + SECONDS_PER_DAY + " seconds evenly: " + unitSeconds);
+    }
+    int scale = unit.scale(); //for the seconds of the result
+    Timescale timescale = time.timescale();
+    if (scale <= Time.MAX_NANOS_SCALE && time.nanosOfDay() != Time.NOT_NANOS) {
+      //the common case: long arithmetic on nanoseconds
+      long unitNanos = unit.movePointRight(Time.MAX_NANOS_SCALE).longValueExact();
+      long numUnits = roundedQuotient(time.nanosOfDay(), unitNanos, roundingMode);
+      long nanos = numUnits * unitNanos;
+      return nanos == Time.NANOS_PER_DAY ? Odometer.nextDay(this) : new DateTime(date, Time.ofNanos(nanos, scale, timescale));
+    }
+    BigDecimal secondsOfDay = big(time.hour() * SECONDS_PER_HOUR + time.minute() * SECONDS_PER_MINUTE).add(time.seconds());
+    BigDecimal numUnits = secondsOfDay.divide(unit, 0, roundingMode);
+    BigDecimal seconds = numUnits.multiply(unit); //the scale of the unit
+    if (seconds.compareTo(SECONDS_IN_A_DAY) == 0) {
+      return Odometer.nextDay(this);
+    }
+    int wholeSeconds = seconds.intValue(); //rounds toward 0
+    int hour = wholeSeconds / SECONDS_PER_HOUR;
+    int minute = (wholeSeconds % SECONDS_PER_HOUR) / SECONDS_PER_MINUTE;
+    BigDecimal secondsInMinute = seconds.subtract(big(hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE));
+    return new DateTime(date, Time.trusted(hour, minute, secondsInMinute, timescale));
+  }
+  
+  /** 
+   The quotient of two non-negative longs, rounded as in {@link BigDecimal#divide(BigDecimal, int, RoundingMode)}.
+   The divisor is positive, and less than {@link Long#MAX_VALUE} / 2.
+  */
+  private static long roundedQuotient(long dividend, long divisor, RoundingMode roundingMode) {
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (remainder == 0) return quotient;
+    switch (roundingMode) {
+      case DOWN: 
+      case FLOOR: return quotient;
+      case UP: 
+      case CEILING: return quotient + 1;
+      case UNNECESSARY: throw new ArithmeticException("Rounding necessary");
+      default: 
+        int half = Long.compare(2 * remainder, divisor);
+        if (half > 0 || (half == 0 && roundingMode == RoundingMode.HALF_UP)) return quotient + 1;
+        if (half == 0 && roundingMode == RoundingMode.HALF_EVEN) return quotient + (quotient & 1);
+        return quotient;
+    }
+  }
+  
+  /** The length of the given unit, in seconds. Only units of a day or less are supported. */
+  private static BigDecimal unitSeconds(ChronoUnit unit) {
+    Duration duration = unit.getDuration();
+    if (unit.isDateBased() && unit != ChronoUnit.DAYS) {
+      throw new IllegalArgumentException("Unit of time not supported. Must be no longer than a day: " + unit);
+    }
+    return big(duration.getSeconds()).add(BigDecimal.valueOf(duration.getNano(), Time.MAX_NANOS_SCALE)).stripTrailingZeros();
   }
   
   private BigDecimal daysFromUnrounded(DateTime that) {
-    JulianDate jdThis = JulianDateConverter.using(this.date().calendar()).toJulianDate(this);
-    JulianDate jdThat = JulianDateConverter.using(that.date().calendar()).toJulianDate(that);
-    return jdThis.jd().subtract(jdThat.jd());
+    return this.toJulianDate().jd().subtract(that.toJulianDate().jd());
   }
 }
\ No newline at end of file
@@ -0,0 +1,320 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ A column of date-times, held in two arrays of primitives, instead of as many {@link DateTime} objects.
+
+ <P>Each item is stored as:
+ <ul>
+  <li>a Julian day number (see {@link Date}), in a <em>long[]</em>.
+  <li>the time since the start of that day, in a <em>long[]</em>.
+  The unit is 10<sup>-scale</sup> seconds, with a single scale shared by the whole column.
+ </ul>
+ The whole column also shares a single {@link Timescale}, and a single {@link Calendar}.
+ The calendar is used only when items are turned back into {@link DateTime} objects.
+
+ <P>The scale is in the range [0, {@value #MAX_SCALE}], so that the number of units in a day always fits in a <em>long</em>.
+ A scale of 9 gives nanoseconds.
+
+ <P>Compared with a list of {@link DateTime} objects, this takes about 16 bytes per item, instead of several hundred.
+ The bulk operations ({@link #shift(long)}, {@link #convertTo(Timescale)}, {@link #difference(DateTimeColumn)},
+ {@link #min()}, {@link #max()}) are simple loops over the arrays, with <em>long</em> arithmetic.
+ Objects are created only at the edges: when building a column from {@link DateTime} objects, and when getting them back.
+
+ <P>This class is immutable. Its arrays are never shared with callers.
+*/
+public final class DateTimeColumn {
+
+  /** The largest scale for the time of day: {@value}. */
+  public static final int MAX_SCALE = 13;
+
+  /**
+   Factory method.
+   Each item is converted to the given timescale, and its seconds are rounded to the given scale
+   using {@link RoundingMode#HALF_EVEN}.
+   @param scale range [0, {@value #MAX_SCALE}]
+   @param calendar used only when items are returned as {@link DateTime} objects.
+   @throws IllegalArgumentException if an item can't be converted to the given timescale.
+  */
+  public static DateTimeColumn of(List<DateTime> dateTimes, int scale, Timescale timescale, Calendar calendar) {
+    checkScale(scale);
+    long[] dayNumbers = new long[dateTimes.size()];
+    long[] timesOfDay = new long[dateTimes.size()];
+    int idx = 0;
+    for(DateTime dateTime : dateTimes) {
+      DateTime dt = normalize(dateTime, timescale, scale);
+      dayNumbers[idx] = DayNumber.of(dt.date());
+      timesOfDay[idx] = timeOfDay(dt.time(), scale);
+      ++idx;
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, scale, timescale, calendar);
+  }
+
+  /** The number of items in this column. */
+  public int size() {
+    return dayNumbers.length;
+  }
+
+  /** The number of decimal places in the seconds. The time of day is in units of 10<sup>-scale</sup> seconds. */
+  public int scale() {
+    return scale;
+  }
+
+  /** The timescale shared by all items in this column. */
+  public Timescale timescale() {
+    return timescale;
+  }
+
+  /** The calendar used by {@link #get(int)} and {@link #toList()} to build each {@link Date}. */
+  public Calendar calendar() {
+    return calendar;
+  }
+
+  /** The Julian day number of the item at the given index. */
+  public long dayNumber(int idx) {
+    return dayNumbers[idx];
+  }
+
+  /** The time since the start of the day of the item at the given index, in units of 10<sup>-scale</sup> seconds. */
+  public long timeOfDay(int idx) {
+    return timesOfDay[idx];
+  }
+
+  /** A copy of the day numbers. */
+  public long[] dayNumbers() {
+    return dayNumbers.clone();
+  }
+
+  /** A copy of the times of day. */
+  public long[] timesOfDay() {
+    return timesOfDay.clone();
+  }
+
+  /** The item at the given index, as a {@link DateTime}. The seconds have the scale of this column. */
+  public DateTime get(int idx) {
+    Date date = DayNumber.toDate(dayNumbers[idx], calendar);
+    long units = timesOfDay[idx];
+    long unitsPerMinute = unitsPerSecond * SECONDS_PER_MINUTE;
+    long unitsPerHour = unitsPerMinute * MINUTES_PER_HOUR;
+    int hour = (int)(units / unitsPerHour);
+    int minute = (int)((units % unitsPerHour) / unitsPerMinute);
+    BigDecimal seconds = BigDecimal.valueOf(units % unitsPerMinute, scale);
+    return DateTime.from(date, Time.trusted(hour, minute, seconds, timescale));
+  }
+
+  /** All of the items, as {@link DateTime} objects. */
+  public List<DateTime> toList() {
+    List<DateTime> res = new ArrayList<>(size());
+    for(int idx = 0; idx < size(); ++idx) {
+      res.add(get(idx));
+    }
+    return res;
+  }
+
+  /** The same items, with a different calendar. The arrays are shared, not copied. */
+  public DateTimeColumn withCalendar(Calendar calendar) {
+    return new DateTimeColumn(dayNumbers, timesOfDay, scale, timescale, calendar);
+  }
+
+  /**
+   Add the given amount of time to every item, and return a new column.
+   @param units in units of 10<sup>-scale</sup> seconds; can be negative.
+  */
+  public DateTimeColumn shift(long units) {
+    long days = Math.floorDiv(units, unitsPerDay);
+    long rest = Math.floorMod(units, unitsPerDay);
+    long[] resDays = new long[size()];
+    long[] resTimes = new long[size()];
+    for(int idx = 0; idx < resDays.length; ++idx) {
+      long time = timesOfDay[idx] + rest;
+      long carry = time >= unitsPerDay ? 1 : 0;
+      resTimes[idx] = time - carry * unitsPerDay;
+      resDays[idx] = dayNumbers[idx] + days + carry;
+    }
+    return new DateTimeColumn(resDays, resTimes, scale, timescale, calendar);
+  }
+
+  /**
+   Add the given number of seconds to every item, and return a new column.
+   @param seconds can be negative. Must not have more decimal places than the scale of this column.
+  */
+  public DateTimeColumn shift(BigDecimal seconds) {
+    if (seconds.stripTrailingZeros().scale() > scale) {
+      throw new IllegalArgumentException(seconds + " has more decimal places than the scale " + scale);
+    }
+    return shift(seconds.movePointRight(scale).longValueExact());
+  }
+
+  /**
+   Convert every item to the given timescale, and return a new column.
+   The seconds are rounded to the scale of this column using {@link RoundingMode#HALF_EVEN}.
+
+   <P>Between {@link TimescaleImpl#TAI}, {@link TimescaleImpl#TT}, {@link TimescaleImpl#GPS}, and {@link TimescaleImpl#UTC}, 
+   the difference is the same for all dates on which it's defined, and it becomes undefined only before a given date.
+   For those cases, the difference is looked up once, for the earliest item, and applied with {@link #shift(long)}.
+   In all other cases, each item is converted separately, as a {@link DateTime}.
+   @throws IllegalArgumentException if an item can't be converted to the given timescale.
+  */
+  public DateTimeColumn convertTo(Timescale target) {
+    if (target == timescale || size() == 0) {
+      return new DateTimeColumn(dayNumbers, timesOfDay, scale, target, calendar);
+    }
+    if (isFixedOffset(timescale) && isFixedOffset(target)) {
+      DateTime earliest = min().get();
+      Optional<BigDecimal> to = target.secondsFromTAI(earliest);
+      Optional<BigDecimal> from = timescale.secondsFromTAI(earliest);
+      if (!to.isPresent() || !from.isPresent()) {
+        throw new IllegalArgumentException("No conversion is defined from " + timescale + " to " + target + " for " + earliest);
+      }
+      BigDecimal seconds = to.get().subtract(from.get()).setScale(scale, RoundingMode.HALF_EVEN);
+      return shift(seconds.unscaledValue().longValueExact()).withTimescale(target);
+    }
+    long[] resDays = new long[size()];
+    long[] resTimes = new long[size()];
+    for(int idx = 0; idx < resDays.length; ++idx) {
+      DateTime dt = normalize(get(idx), target, scale);
+      resDays[idx] = DayNumber.of(dt.date());
+      resTimes[idx] = timeOfDay(dt.time(), scale);
+    }
+    return new DateTimeColumn(resDays, resTimes, scale, target, calendar);
+  }
+
+  /**
+   Return the difference (this - that) for each pair of items, in units of 10<sup>-scale</sup> seconds.
+   @param that has the same size, scale, and timescale as this column.
+   @throws ArithmeticException if a difference doesn't fit in a <em>long</em>.
+  */
+  public long[] difference(DateTimeColumn that) {
+    if (that.size() != size() || that.scale != scale || !TimescaleOrder.same(that.timescale, timescale)) {
+      throw new IllegalArgumentException("Columns don't match: " + this + " and " + that);
+    }
+    long[] res = new long[size()];
+    for(int idx = 0; idx < res.length; ++idx) {
+      long days = dayNumbers[idx] - that.dayNumbers[idx];
+      res[idx] = Math.addExact(Math.multiplyExact(days, unitsPerDay), timesOfDay[idx] - that.timesOfDay[idx]);
+    }
+    return res;
+  }
+
+  /** The earliest item, or empty if this column is empty. */
+  public Optional<DateTime> min() {
+    return extreme(-1);
+  }
+
+  /** The latest item, or empty if this column is empty. */
+  public Optional<DateTime> max() {
+    return extreme(1);
+  }
+
+  /** Intended for logging only. */
+  @Override public String toString() {
+    return "DateTimeColumn size:" + size() + " scale:" + scale + " " + timescale + " " + calendar;
+  }
+
+  /**
+   Constructor. The arrays are NOT copied: the caller must not change them after this call.
+   The times of day must be in range [0, units per day).
+  */
+  DateTimeColumn(long[] dayNumbers, long[] timesOfDay, int scale, Timescale timescale, Calendar calendar) {
+    if (dayNumbers.length != timesOfDay.length) {
+      throw new IllegalArgumentException("Arrays have different lengths: " + dayNumbers.length + " and " + timesOfDay.length);
+    }
+    this.dayNumbers = dayNumbers;
+    this.timesOfDay = timesOfDay;
+    this.scale = checkScale(scale);
+    this.unitsPerSecond = powerOfTen(scale);
+    this.unitsPerDay = unitsPerSecond * SECONDS_PER_DAY;
+    this.timescale = timescale;
+    this.calendar = calendar;
+  }
+
+  /**
+   The time of day of the item at the given index, in nanoseconds.
+   For a scale of more than 9, the time is rounded using {@link RoundingMode#HALF_EVEN}, and can be equal to a whole day.
+  */
+  long nanosOfDay(int idx) {
+    if (scale <= Time.MAX_NANOS_SCALE) {
+      return timesOfDay[idx] * powerOfTen(Time.MAX_NANOS_SCALE - scale);
+    }
+    long divisor = powerOfTen(scale - Time.MAX_NANOS_SCALE);
+    long quotient = timesOfDay[idx] / divisor; //never negative
+    long twiceRemainder = 2 * (timesOfDay[idx] - quotient * divisor);
+    if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+      ++quotient;
+    }
+    return quotient;
+  }
+
+  /** Convert to the given timescale, and round the seconds to the given scale. */
+  static DateTime normalize(DateTime dateTime, Timescale timescale, int scale) {
+    DateTime res = dateTime;
+    if (res.time().timescale() != timescale) {
+      res = res.convertTo(timescale).orElseThrow(
+        () -> new IllegalArgumentException("No conversion is defined from " + dateTime.time().timescale() + " to " + timescale + " for " + dateTime)
+      );
+    }
+    if (res.seconds().scale() > scale) {
+      res = res.roundSeconds(scale, RoundingMode.HALF_EVEN); //can roll over to the next day
+    }
+    return res;
+  }
+
+  /** The time since the start of the day, in units of 10<sup>-scale</sup> seconds. The seconds must not have more decimal places than the scale. */
+  static long timeOfDay(Time time, int scale) {
+    long nanos = time.nanosOfDay();
+    if (nanos != Time.NOT_NANOS && scale <= Time.MAX_NANOS_SCALE) {
+      return nanos / powerOfTen(Time.MAX_NANOS_SCALE - scale);
+    }
+    long wholeMinutes = time.hour() * (long)MINUTES_PER_HOUR + time.minute();
+    return wholeMinutes * SECONDS_PER_MINUTE * powerOfTen(scale) + time.seconds().movePointRight(scale).longValueExact();
+  }
+
+  static int checkScale(int scale) {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("Scale " + scale + " is not in range [0.." + MAX_SCALE + "]");
+    }
+    return scale;
+  }
+
+  private final long[] dayNumbers;
+  private final long[] timesOfDay;
+  private final int scale;
+  private final long unitsPerSecond;
+  private final long unitsPerDay;
+  private final Timescale timescale;
+  private final Calendar calendar;
+
+  private DateTimeColumn withTimescale(Timescale target) {
+    return new DateTimeColumn(dayNumbers, timesOfDay, scale, target, calendar);
+  }
+
+  /** For each pair of these timescales, the difference between them doesn't depend on the date, when it's defined. */
+  static boolean isFixedOffset(Timescale timescale) {
+    return 
+      timescale == TimescaleImpl.TAI || 
+      timescale == TimescaleImpl.TT || 
+      timescale == TimescaleImpl.GPS || 
+      timescale == TimescaleImpl.UTC
+    ;
+  }
+
+  /** @param sign -1 for the minimum, +1 for the maximum. */
+  private Optional<DateTime> extreme(int sign) {
+    if (size() == 0) return Optional.empty();
+    int best = 0;
+    for(int idx = 1; idx < dayNumbers.length; ++idx) {
+      int cmp = dayNumbers[idx] != dayNumbers[best] ? Long.compare(dayNumbers[idx], dayNumbers[best]) : Long.compare(timesOfDay[idx], timesOfDay[best]);
+      if (cmp * sign > 0) {
+        best = idx;
+      }
+    }
+    return Optional.of(get(best));
+  }
+}
@@ -0,0 +1,81 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class DateTimeColumnTEST {
+
+  @Test public void roundTrip() {
+    List<DateTime> items = List.of(
+      tt(2025, 1, 1, 0, 0, "0.000"),
+      tt(2025, 12, 31, 23, 59, "59.999"),
+      tt(-4712, 1, 1, 12, 0, "0.500"),
+      tt(2000, 2, 29, 6, 30, "15.250")
+    );
+    DateTimeColumn column = DateTimeColumn.of(items, 3, TimescaleImpl.TT, Calendar.GREGORIAN);
+    assertEquals(4, column.size());
+    assertEquals(items, column.toList());
+    assertEquals(2_451_604L, column.dayNumber(3));
+    assertEquals((6 * 3600 + 30 * 60 + 15) * 1000L + 250, column.timeOfDay(3));
+    assertEquals(DateTime.julianCalendar(2000, 2, 16, 6, 30, big("15.250"), TimescaleImpl.TT), column.withCalendar(Calendar.JULIAN).get(3));
+  }
+
+  @Test public void roundingAndLargeScale() {
+    DateTimeColumn column = DateTimeColumn.of(List.of(tt(2025, 12, 31, 23, 59, "59.9996")), 3, TimescaleImpl.TT, Calendar.GREGORIAN);
+    assertEquals(tt(2026, 1, 1, 0, 0, "0.000"), column.get(0));
+    DateTime fine = tt(2025, 6, 30, 1, 2, "3.1234567890123");
+    assertEquals(fine, DateTimeColumn.of(List.of(fine), 13, TimescaleImpl.TT, Calendar.GREGORIAN).get(0));
+    assertThrows(IllegalArgumentException.class, () -> DateTimeColumn.of(List.of(fine), 14, TimescaleImpl.TT, Calendar.GREGORIAN));
+  }
+
+  @Test public void shift() {
+    DateTimeColumn column = DateTimeColumn.of(List.of(tt(2025, 12, 31, 23, 59, "59.5"), tt(2025, 1, 1, 0, 0, "0.5")), 1, TimescaleImpl.TT, Calendar.GREGORIAN);
+    DateTimeColumn later = column.shift(big("0.5"));
+    assertEquals(tt(2026, 1, 1, 0, 0, "0.0"), later.get(0));
+    assertEquals(tt(2025, 1, 1, 0, 0, "1.0"), later.get(1));
+    DateTimeColumn earlier = column.shift(-10L * 86400 * 10 - 6);
+    assertEquals(tt(2025, 12, 21, 23, 59, "58.9"), earlier.get(0));
+    assertEquals(tt(2024, 12, 21, 23, 59, "59.9"), earlier.get(1));
+    assertThrows(IllegalArgumentException.class, () -> column.shift(big("0.05")));
+  }
+
+  @Test public void convert() {
+    List<DateTime> items = List.of(tt(2025, 1, 1, 0, 0, "0.000"), tt(2025, 6, 30, 12, 0, "30.500"));
+    DateTimeColumn column = DateTimeColumn.of(items, 3, TimescaleImpl.TT, Calendar.GREGORIAN);
+    //fixed offsets: a single shift
+    DateTimeColumn utc = column.convertTo(TimescaleImpl.UTC);
+    assertEquals(TimescaleImpl.UTC, utc.timescale());
+    for(int idx = 0; idx < items.size(); ++idx) {
+      assertEquals(DateTimeColumn.normalize(items.get(idx), TimescaleImpl.UTC, 3), utc.get(idx));
+    }
+    assertEquals(column.toList(), utc.convertTo(TimescaleImpl.TT).toList());
+    //item by item
+    DateTimeColumn tdb = column.convertTo(TimescaleImpl.TDB);
+    for(int idx = 0; idx < items.size(); ++idx) {
+      assertEquals(0, DateTimeColumn.normalize(items.get(idx), TimescaleImpl.TDB, 3).compareTo(tdb.get(idx)));
+    }
+    DateTimeColumn old = DateTimeColumn.of(List.of(tt(1970, 1, 1, 0, 0, "0")), 0, TimescaleImpl.TT, Calendar.GREGORIAN);
+    assertThrows(IllegalArgumentException.class, () -> old.convertTo(TimescaleImpl.GPS));
+  }
+
+  @Test public void differenceMinMax() {
+    DateTimeColumn a = DateTimeColumn.of(List.of(tt(2025, 1, 2, 0, 0, "0.25"), tt(2025, 1, 1, 0, 0, "0")), 2, TimescaleImpl.TT, Calendar.GREGORIAN);
+    DateTimeColumn b = DateTimeColumn.of(List.of(tt(2025, 1, 1, 23, 59, "59.75"), tt(2025, 1, 1, 0, 0, "1")), 2, TimescaleImpl.TT, Calendar.GREGORIAN);
+    assertArrayEquals(new long[] {50L, -100L}, a.difference(b));
+    assertThrows(IllegalArgumentException.class, () -> a.difference(a.convertTo(TimescaleImpl.TAI)));
+    assertEquals(tt(2025, 1, 1, 0, 0, "0.00"), a.min().get());
+    assertEquals(tt(2025, 1, 2, 0, 0, "0.25"), a.max().get());
+    DateTimeColumn empty = DateTimeColumn.of(List.of(), 2, TimescaleImpl.TT, Calendar.GREGORIAN);
+    assertFalse(empty.min().isPresent());
+    assertFalse(empty.max().isPresent());
+  }
+
+  private static DateTime tt(long year, int month, int day, int hour, int minute, String seconds) {
+    return DateTime.gregorianCalendar(year, month, day, hour, minute, big(seconds), TimescaleImpl.TT);
+  }
+}
@@ -0,0 +1,323 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+import static bigtime.when.BigDecimalHelper.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ Format a {@link DateTime} or a {@link JulianDate} as text, appending to a caller-supplied
+ {@link StringBuilder}, {@link Appendable}, or {@link ByteBuffer}.
+
+ <P>The supported formats:
+ <ul>
+  <li>{@link #iso()}: <em>2025-01-01T01:09:02.25 TT</em>, with the seconds at their own scale.
+  <li>{@link #iso(int)}: the same, with a fixed number of decimal places for the seconds.
+  <li>{@link #jd(int)}: the Julian date, with a fixed number of decimal places: <em>2451545.000</em>.
+  <li>{@link #mjd(int)}: the Modified Julian date (JD - 2400000.5), with a fixed number of decimal places.
+ </ul>
+
+ <P>The ISO format always has at least 4 digits in the year, with a leading minus sign for negative years.
+ For the {@link Calendar#JULIAN} calendar, the date is followed by <em> JU </em> instead of <em>T</em>.
+ The timescale is given by its {@link Timescale#id()}.
+ The output of the ISO formats can be read back with {@link DateTimeParser}.
+
+ <P>The text is written one character at a time, straight into the target. No intermediate Strings are created.
+ When the seconds of a {@link Time} have 9 decimal places or fewer, the ISO formats don't create any objects at all.
+ (Rounding the seconds, and the Julian date formats, still use {@link BigDecimal} arithmetic.)
+ A {@link ByteBuffer} receives US-ASCII bytes.
+
+ <P>Instances of this class are immutable, and can be shared between threads.
+*/
+public final class DateTimeFormat {
+
+  /** ISO-8601 style, with the seconds at their own scale. */
+  public static DateTimeFormat iso() {
+    return ISO;
+  }
+
+  /**
+   ISO-8601 style, with a fixed number of decimal places for the seconds.
+   Seconds that have more decimal places are rounded using {@link RoundingMode#HALF_EVEN}.
+   @param numPlaces 0 or more. For 0, no decimal point is shown.
+  */
+  public static DateTimeFormat iso(int numPlaces) {
+    return new DateTimeFormat(Kind.ISO, checkPlaces(numPlaces));
+  }
+
+  /**
+   The Julian date, rounded to the given number of decimal places using {@link RoundingMode#HALF_EVEN}.
+   The timescale is not shown.
+   @param numPlaces 0 or more. For 0, no decimal point is shown.
+  */
+  public static DateTimeFormat jd(int numPlaces) {
+    return new DateTimeFormat(Kind.JD, checkPlaces(numPlaces));
+  }
+
+  /** As in {@link #jd(int)}, but for the Modified Julian date, JD - 2400000.5. */
+  public static DateTimeFormat mjd(int numPlaces) {
+    return new DateTimeFormat(Kind.MJD, checkPlaces(numPlaces));
+  }
+
+  /** Append the given {@link DateTime} to the given {@link StringBuilder}, and return the same {@link StringBuilder}. */
+  public StringBuilder appendTo(StringBuilder target, DateTime dateTime) {
+    format(dateTime, new Builder(target));
+    return target;
+  }
+
+  /** Append the given {@link JulianDate} to the given {@link StringBuilder}, and return the same {@link StringBuilder}. */
+  public StringBuilder appendTo(StringBuilder target, JulianDate julianDate) {
+    format(julianDate, new Builder(target));
+    return target;
+  }
+
+  /**
+   Append the given {@link DateTime} to the given {@link Appendable}, and return the same {@link Appendable}.
+   @throws UncheckedIOException if the target throws an {@link IOException}.
+  */
+  public <T extends Appendable> T appendTo(T target, DateTime dateTime) {
+    format(dateTime, new Append(target));
+    return target;
+  }
+
+  /**
+   Append the given {@link JulianDate} to the given {@link Appendable}, and return the same {@link Appendable}.
+   @throws UncheckedIOException if the target throws an {@link IOException}.
+  */
+  public <T extends Appendable> T appendTo(T target, JulianDate julianDate) {
+    format(julianDate, new Append(target));
+    return target;
+  }
+
+  /**
+   Put the given {@link DateTime} into the given {@link ByteBuffer}, at its current position, as US-ASCII.
+   Return the same {@link ByteBuffer}.
+   @throws java.nio.BufferOverflowException if there's not enough room left in the buffer.
+  */
+  public ByteBuffer appendTo(ByteBuffer target, DateTime dateTime) {
+    format(dateTime, new Bytes(target));
+    return target;
+  }
+
+  /** As in {@link #appendTo(ByteBuffer, DateTime)}, for a {@link JulianDate}. */
+  public ByteBuffer appendTo(ByteBuffer target, JulianDate julianDate) {
+    format(julianDate, new Bytes(target));
+    return target;
+  }
+
+  /** Convenience method, returning a new String. */
+  public String format(DateTime dateTime) {
+    return appendTo(new StringBuilder(40), dateTime).toString();
+  }
+
+  /** Convenience method, returning a new String. */
+  public String format(JulianDate julianDate) {
+    return appendTo(new StringBuilder(40), julianDate).toString();
+  }
+
+  /** Intended for logging only. */
+  @Override public String toString() {
+    return kind + (numPlaces == NATURAL ? "" : " " + numPlaces + " places");
+  }
+
+  private enum Kind { ISO, JD, MJD }
+
+  /** For the ISO format, show the seconds at their own scale. */
+  private static final int NATURAL = -1;
+  private static final DateTimeFormat ISO = new DateTimeFormat(Kind.ISO, NATURAL);
+
+  private static final BigDecimal MJD_OFFSET = big("2400000.5");
+
+  private final Kind kind;
+  private final int numPlaces;
+
+  private DateTimeFormat(Kind kind, int numPlaces) {
+    this.kind = kind;
+    this.numPlaces = numPlaces;
+  }
+
+  private static int checkPlaces(int numPlaces) {
+    if (numPlaces < 0) {
+      throw new IllegalArgumentException("Number of decimal places cannot be negative: " + numPlaces);
+    }
+    return numPlaces;
+  }
+
+  private void format(DateTime dt, Out out) {
+    if (kind == Kind.ISO) {
+      iso(dt, out);
+    }
+    else {
+      julian(dt.toJulianDate(), out);
+    }
+  }
+
+  private void format(JulianDate jd, Out out) {
+    if (kind == Kind.ISO) {
+      iso(DateTime.from(jd, Calendar.GREGORIAN), out);
+    }
+    else {
+      julian(jd, out);
+    }
+  }
+
+  private void iso(DateTime dt, Out out) {
+    if (numPlaces != NATURAL && dt.seconds().scale() > numPlaces) {
+      dt = dt.roundSeconds(numPlaces, RoundingMode.HALF_EVEN); //can roll over to the next minute
+    }
+    Date date = dt.date();
+    if (date.year() < 0) {
+      out.put('-');
+    }
+    putDigits(out, Math.abs(date.year()), 4);
+    out.put('-');
+    putDigits(out, date.month(), 2);
+    out.put('-');
+    putDigits(out, date.day(), 2);
+    if (date.calendar() == Calendar.JULIAN) {
+      out.put(' ');
+      out.put('J');
+      out.put('U');
+      out.put(' ');
+    }
+    else {
+      out.put('T');
+    }
+    Time time = dt.time();
+    putDigits(out, time.hour(), 2);
+    out.put(':');
+    putDigits(out, time.minute(), 2);
+    out.put(':');
+    seconds(time, out);
+    out.put(' ');
+    String id = time.timescale().id();
+    for(int i = 0; i < id.length(); ++i) {
+      out.put(id.charAt(i));
+    }
+  }
+
+  private void seconds(Time time, Out out) {
+    BigDecimal seconds = time.seconds();
+    int scale = Math.max(seconds.scale(), 0);
+    int shown = numPlaces == NATURAL ? scale : numPlaces;
+    if (time.nanosOfDay() != Time.NOT_NANOS) {
+      //no objects are created here
+      long nanosOfMinute = time.nanosOfDay() % NANOS_PER_MINUTE;
+      putDigits(out, nanosOfMinute / NANOS_PER_SECOND, 2);
+      if (shown > 0) {
+        out.put('.');
+        long nanos = nanosOfMinute % NANOS_PER_SECOND;
+        if (scale > 0) {
+          putDigits(out, nanos / powerOfTen(Time.MAX_NANOS_SCALE - scale), scale);
+        }
+        putZeros(out, shown - scale);
+      }
+    }
+    else {
+      //more than 9 decimal places
+      String digits = seconds.unscaledValue().toString();
+      int intDigits = digits.length() - scale;
+      putZeros(out, 2 - Math.max(intDigits, 0));
+      for(int i = 0; i < intDigits; ++i) {
+        out.put(digits.charAt(i));
+      }
+      out.put('.');
+      putZeros(out, -Math.min(intDigits, 0));
+      for(int i = Math.max(intDigits, 0); i < digits.length(); ++i) {
+        out.put(digits.charAt(i));
+      }
+      putZeros(out, shown - scale);
+    }
+  }
+
+  private void julian(JulianDate julianDate, Out out) {
+    BigDecimal val = kind == Kind.JD ? julianDate.jd() : julianDate.jd().subtract(MJD_OFFSET);
+    val = val.setScale(numPlaces, RoundingMode.HALF_EVEN);
+    if (val.signum() < 0) {
+      out.put('-');
+      val = val.negate();
+    }
+    if (numPlaces <= 18 && val.precision() <= 18) {
+      //fits in a long
+      long unscaled = val.movePointRight(numPlaces).longValue();
+      long divisor = powerOfTen(numPlaces);
+      putDigits(out, unscaled / divisor, 1);
+      if (numPlaces > 0) {
+        out.put('.');
+        putDigits(out, unscaled % divisor, numPlaces);
+      }
+    }
+    else {
+      String digits = val.unscaledValue().toString();
+      int intDigits = digits.length() - numPlaces;
+      if (intDigits <= 0) {
+        out.put('0');
+      }
+      for(int i = 0; i < intDigits; ++i) {
+        out.put(digits.charAt(i));
+      }
+      if (numPlaces > 0) {
+        out.put('.');
+        putZeros(out, -Math.min(intDigits, 0));
+        for(int i = Math.max(intDigits, 0); i < digits.length(); ++i) {
+          out.put(digits.charAt(i));
+        }
+      }
+    }
+  }
+
+  /** Put the digits of a non-negative number, padded with leading zeros to at least the given width. */
+  private static void putDigits(Out out, long val, int minDigits) {
+    int numDigits = 1;
+    long divisor = 1;
+    while (numDigits < 19 && divisor * 10 <= val) {
+      divisor *= 10;
+      ++numDigits;
+    }
+    putZeros(out, minDigits - numDigits);
+    while (divisor > 0) {
+      out.put((char)('0' + (val / divisor) % 10));
+      divisor /= 10;
+    }
+  }
+
+  private static void putZeros(Out out, int count) {
+    for(int i = 0; i < count; ++i) {
+      out.put('0');
+    }
+  }
+
+  /** The target of the formatting. */
+  private interface Out {
+    void put(char c);
+  }
+
+  private static final class Builder implements Out {
+    Builder(StringBuilder target) { this.target = target; }
+    @Override public void put(char c) { target.append(c); }
+    private final StringBuilder target;
+  }
+
+  private static final class Append implements Out {
+    Append(Appendable target) { this.target = target; }
+    @Override public void put(char c) {
+      try {
+        target.append(c);
+      }
+      catch(IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+    private final Appendable target;
+  }
+
+  private static final class Bytes implements Out {
+    Bytes(ByteBuffer target) { this.target = target; }
+    @Override public void put(char c) { target.put((byte)c); }
+    private final ByteBuffer target;
+  }
+}
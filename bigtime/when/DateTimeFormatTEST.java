@@ -0,0 +1,69 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class DateTimeFormatTEST {
+
+  @Test public void iso() {
+    iso(DateTimeFormat.iso(), dt(2025, 1, 1, 1, 9, "2.25"), "2025-01-01T01:09:02.25 TT");
+    iso(DateTimeFormat.iso(), dt(2025, 1, 1, 1, 9, "2"), "2025-01-01T01:09:02 TT");
+    iso(DateTimeFormat.iso(), dt(5, 1, 1, 0, 0, "0.000000001"), "0005-01-01T00:00:00.000000001 TT");
+    iso(DateTimeFormat.iso(), dt(2025, 12, 31, 23, 59, "59.12345678901234567890"), "2025-12-31T23:59:59.12345678901234567890 TT");
+    iso(DateTimeFormat.iso(), dt(2025, 12, 31, 23, 59, "0.00000000001"), "2025-12-31T23:59:00.00000000001 TT");
+    iso(DateTimeFormat.iso(), DateTime.from(-44, 3, 15, 10, 5, big("7.5"), Calendar.JULIAN, TimescaleImpl.UT1), "-0044-03-15 JU 10:05:07.5 UT1");
+  }
+
+  @Test public void isoFixed() {
+    iso(DateTimeFormat.iso(3), dt(2025, 1, 1, 1, 9, "2.25"), "2025-01-01T01:09:02.250 TT");
+    iso(DateTimeFormat.iso(0), dt(2025, 1, 1, 1, 9, "2"), "2025-01-01T01:09:02 TT");
+    iso(DateTimeFormat.iso(12), dt(2025, 1, 1, 1, 9, "2.5"), "2025-01-01T01:09:02.500000000000 TT");
+    iso(DateTimeFormat.iso(12), dt(2025, 1, 1, 1, 9, "2.12345678901"), "2025-01-01T01:09:02.123456789010 TT");
+    iso(DateTimeFormat.iso(2), dt(2025, 12, 31, 23, 59, "59.999"), "2026-01-01T00:00:00.00 TT");
+    iso(DateTimeFormat.iso(2), dt(2025, 12, 31, 23, 59, "59.12345678901234567890"), "2025-12-31T23:59:59.12 TT");
+    assertThrows(IllegalArgumentException.class, () -> DateTimeFormat.iso(-1));
+  }
+
+  @Test public void julian() {
+    DateTime noon = dt(2000, 1, 1, 12, 0, "0");
+    assertEquals("2451545.000", DateTimeFormat.jd(3).format(noon));
+    assertEquals("2451545", DateTimeFormat.jd(0).format(noon));
+    assertEquals("51544.5", DateTimeFormat.mjd(1).format(noon));
+    assertEquals("2451545.0000000000000000000000", DateTimeFormat.jd(22).format(noon));
+    JulianDate jd = JulianDate.from(big("-0.25"), TimescaleImpl.TT);
+    assertEquals("-0.25", DateTimeFormat.jd(2).format(jd));
+    assertEquals("-2400000.75000000000000000000", DateTimeFormat.mjd(20).format(jd));
+    assertEquals("2451545.50", DateTimeFormat.jd(2).format(dt(2000, 1, 2, 0, 0, "0").toJulianDate()));
+  }
+
+  @Test public void targets() {
+    DateTime dt = dt(2025, 1, 1, 1, 9, "2.25");
+    String expected = "2025-01-01T01:09:02.25 TT";
+    StringWriter writer = DateTimeFormat.iso().appendTo(new StringWriter(), dt);
+    assertEquals(expected, writer.toString());
+    ByteBuffer buffer = DateTimeFormat.iso().appendTo(ByteBuffer.allocate(64), dt);
+    assertEquals(expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    StringBuilder builder = new StringBuilder("x=");
+    assertEquals("x=" + expected, DateTimeFormat.iso().appendTo(builder, dt).toString());
+  }
+
+  @Test public void roundTripWithParser() {
+    DateTime dt = DateTime.from(-4712, 1, 1, 12, 0, big("0.000123456789012"), Calendar.JULIAN, TimescaleImpl.TAI);
+    assertEquals(dt, DateTimeParser.standard().parse(DateTimeFormat.iso().format(dt)));
+  }
+
+  private static DateTime dt(long y, int m, int d, int h, int min, String sec) {
+    return DateTime.gregorianCalendar(y, m, d, h, min, big(sec), TimescaleImpl.TT);
+  }
+
+  private static void iso(DateTimeFormat format, DateTime dt, String expected) {
+    assertEquals(expected, format.format(dt));
+  }
+}
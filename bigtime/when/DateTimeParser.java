@@ -0,0 +1,364 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ Parse text into a {@link DateTime}.
+
+ <P>The accepted format is a close relative of ISO-8601:
+ <pre>[-]YYYY-MM-DD[ CAL](T| )hh:mm:ss[.fff...]( TS|Z)</pre>
+ <ul>
+  <li>the year has one or more digits, with an optional leading minus sign.
+  As elsewhere in this library, the year before 1 is 0.
+  <li>CAL is an optional calendar code: <em>GR</em> or <em>JU</em>, as in {@link Date#toString()}.
+  The default is {@link Calendar#GREGORIAN}.
+  <li>the seconds can have any number of decimal places. The scale of the seconds is the number of decimal places in the text.
+  <li>TS is the {@link Timescale#id()} of a timescale known to the parser.
+  A trailing <em>Z</em> is a synonym for {@link TimescaleImpl#UTC}. A timescale is always required.
+ </ul>
+
+ <P>Examples:
+ <pre>
+2025-01-01T01:09:02.25Z
+2025-01-01 01:09:02.123456789012 TT
+1582-10-04 JU 23:59:59 UT1
+-4712-01-01 JU 12:00:00 TAI
+ </pre>
+ The output of {@link DateTime#toString()} is accepted.
+
+ <P>The parser reads characters one at a time, and builds each field directly from its digits.
+ It uses no regular expressions, and it doesn't create any intermediate Strings.
+ Text can be passed as any {@link CharSequence}, or as a region of a <em>byte[]</em> or a {@link ByteBuffer} holding US-ASCII (or UTF-8) text.
+
+ <P>Instances of this class are immutable, and can be shared between threads.
+*/
+public final class DateTimeParser {
+
+  /** A parser that recognizes the timescales in {@link TimescaleImpl}. */
+  public static DateTimeParser standard() {
+    return STANDARD;
+  }
+
+  /**
+   A parser that recognizes the timescales in {@link TimescaleImpl}, and also the given timescales.
+   @param timescales usually custom timescales. Each is recognized by its {@link Timescale#id()}.
+  */
+  public static DateTimeParser withTimescales(Timescale... timescales) {
+    Timescale[] all = Arrays.copyOf(TimescaleImpl.values(), TimescaleImpl.values().length + timescales.length, Timescale[].class);
+    System.arraycopy(timescales, 0, all, TimescaleImpl.values().length, timescales.length);
+    return new DateTimeParser(all);
+  }
+
+  /** Parse all of the given text. */
+  public DateTime parse(CharSequence text) {
+    return parse(text, 0, text.length());
+  }
+
+  /**
+   Parse a region of the given text.
+   @param start index of the first character (inclusive)
+   @param end index after the last character (exclusive)
+  */
+  public DateTime parse(CharSequence text, int start, int end) {
+    checkRegion(start, end, text.length());
+    return new Chars(text, start, end).parse();
+  }
+
+  /**
+   Parse a region of the given bytes, holding US-ASCII (or UTF-8) text.
+   @param offset index of the first byte
+   @param length number of bytes to parse
+  */
+  public DateTime parse(byte[] bytes, int offset, int length) {
+    checkRegion(offset, offset + length, bytes.length);
+    return new Bytes(bytes, offset, offset + length).parse();
+  }
+
+  /**
+   Parse a region of the given buffer, holding US-ASCII (or UTF-8) text.
+   The buffer is read using absolute indexes, so its position and limit are not changed.
+   This works for a memory-mapped file, without copying its bytes.
+   @param offset absolute index of the first byte
+   @param length number of bytes to parse
+  */
+  public DateTime parse(ByteBuffer bytes, int offset, int length) {
+    checkRegion(offset, offset + length, bytes.limit());
+    return new Buffer(bytes, offset, offset + length).parse();
+  }
+
+  /** The timescales recognized by this parser. */
+  public List<Timescale> timescales() {
+    return List.of(timescales);
+  }
+
+  private final Timescale[] timescales;
+  private final String[] ids;
+
+  private static final DateTimeParser STANDARD = new DateTimeParser(TimescaleImpl.values());
+
+  /** The number of decimal digits that always fit into a long. */
+  private static final int LONG_DIGITS = 18;
+
+  private DateTimeParser(Timescale[] timescales) {
+    this.timescales = timescales;
+    this.ids = new String[timescales.length];
+    for(int i = 0; i < timescales.length; ++i) {
+      ids[i] = timescales[i].id();
+    }
+  }
+
+  private static void checkRegion(int start, int end, int length) {
+    if (start < 0 || end > length || start > end) {
+      throw new IllegalArgumentException("Region [" + start + ".." + end + ") is not inside text of length " + length);
+    }
+  }
+
+  /**
+   The parsing logic, independent of how the characters are stored.
+   A new object is used for each parse; it holds the position of a cursor.
+  */
+  private abstract class Cursor {
+    Cursor(int start, int end) {
+      this.pos = start;
+      this.start = start;
+      this.end = end;
+    }
+
+    /** Return the character at the given index. */
+    abstract char at(int idx);
+
+    /** For error messages only. */
+    abstract String text();
+
+    DateTime parse() {
+      long year = year();
+      expect('-');
+      int month = digits(2);
+      expect('-');
+      int day = digits(2);
+      Calendar calendar = Calendar.GREGORIAN;
+      if (peek() == ' ' && isLetter(peekAt(1))) {
+        ++pos;
+        calendar = calendar();
+      }
+      char sep = next();
+      if (sep != 'T' && sep != ' ') {
+        throw fail("Expecting 'T' or a space between the date and the time", pos - 1);
+      }
+      int hour = digits(2);
+      expect(':');
+      int minute = digits(2);
+      expect(':');
+      BigDecimal seconds = seconds();
+      Timescale timescale = timescale();
+      if (pos != end) {
+        throw fail("Unexpected text after the timescale", pos);
+      }
+      try {
+        return DateTime.from(Date.from(year, month, day, calendar), Time.from(hour, minute, seconds, timescale));
+      }
+      catch(IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Cannot parse '" + text() + "': " + ex.getMessage(), ex);
+      }
+    }
+
+    private long year() {
+      boolean negative = peek() == '-';
+      if (negative) ++pos;
+      int first = pos;
+      long res = 0;
+      while (pos < end && isDigit(at(pos))) {
+        if (pos - first == LONG_DIGITS) {
+          throw fail("Year has too many digits", first);
+        }
+        res = res * 10 + (at(pos) - '0');
+        ++pos;
+      }
+      if (pos == first) {
+        throw fail("Expecting the digits of the year", first);
+      }
+      return negative ? -res : res;
+    }
+
+    /** Exactly the given number of digits. */
+    private int digits(int count) {
+      int res = 0;
+      for(int i = 0; i < count; ++i) {
+        char c = next();
+        if (!isDigit(c)) {
+          throw fail("Expecting a digit", pos - 1);
+        }
+        res = res * 10 + (c - '0');
+      }
+      return res;
+    }
+
+    /**
+     Two digits, then an optional decimal point with any number of digits.
+     The unscaled value is built in chunks of up to 18 digits, using long arithmetic.
+     A BigInteger is needed only for more than 18 digits in all.
+    */
+    private BigDecimal seconds() {
+      long chunk = digits(2);
+      int chunkDigits = 2;
+      int scale = 0;
+      BigInteger big = null;
+      if (peek() == '.') {
+        ++pos;
+        int first = pos;
+        while (pos < end && isDigit(at(pos))) {
+          if (chunkDigits == LONG_DIGITS) {
+            big = accumulate(big, chunk, chunkDigits);
+            chunk = 0;
+            chunkDigits = 0;
+          }
+          chunk = chunk * 10 + (at(pos) - '0');
+          ++chunkDigits;
+          ++scale;
+          ++pos;
+        }
+        if (pos == first) {
+          throw fail("Expecting digits after the decimal point", first);
+        }
+      }
+      if (big == null) {
+        return BigDecimal.valueOf(chunk, scale);
+      }
+      return new BigDecimal(accumulate(big, chunk, chunkDigits), scale);
+    }
+
+    private BigInteger accumulate(BigInteger soFar, long chunk, int chunkDigits) {
+      BigInteger res = BigInteger.valueOf(chunk);
+      if (soFar != null) {
+        res = soFar.multiply(BigInteger.valueOf(powerOfTen(chunkDigits))).add(res);
+      }
+      return res;
+    }
+
+    private Calendar calendar() {
+      char a = next();
+      char b = next();
+      if (a == 'G' && b == 'R') return Calendar.GREGORIAN;
+      if (a == 'J' && b == 'U') return Calendar.JULIAN;
+      throw fail("Unknown calendar. Expecting GR or JU", pos - 2);
+    }
+
+    /** Either 'Z', or a space followed by the id of a known timescale. */
+    private Timescale timescale() {
+      if (peek() == 'Z' && pos + 1 == end) {
+        ++pos;
+        return TimescaleImpl.UTC;
+      }
+      expect(' ');
+      int first = pos;
+      int length = end - first;
+      for(int i = 0; i < ids.length; ++i) {
+        if (matches(ids[i], first, length)) {
+          pos = end;
+          return timescales[i];
+        }
+      }
+      throw fail("Unknown timescale", first);
+    }
+
+    private boolean matches(String id, int from, int length) {
+      if (id.length() != length) return false;
+      for(int i = 0; i < length; ++i) {
+        if (id.charAt(i) != at(from + i)) return false;
+      }
+      return true;
+    }
+
+    private void expect(char c) {
+      if (next() != c) {
+        throw fail("Expecting '" + c + "'", pos - 1);
+      }
+    }
+
+    /** Return the current character, and advance. */
+    private char next() {
+      if (pos >= end) {
+        throw fail("Unexpected end of text", pos);
+      }
+      return at(pos++);
+    }
+
+    /** Return the current character, or 0 at the end. */
+    private char peek() {
+      return peekAt(0);
+    }
+
+    private char peekAt(int ahead) {
+      return pos + ahead < end ? at(pos + ahead) : 0;
+    }
+
+    private boolean isDigit(char c) {
+      return '0' <= c && c <= '9';
+    }
+
+    private boolean isLetter(char c) {
+      return ('A' <= c && c <= 'Z') || ('a' <= c && c <= 'z');
+    }
+
+    private IllegalArgumentException fail(String message, int idx) {
+      return new IllegalArgumentException("Cannot parse '" + text() + "'. " + message + " at position " + (idx - start));
+    }
+
+    int pos;
+    final int start;
+    final int end;
+  }
+
+  private final class Chars extends Cursor {
+    Chars(CharSequence text, int start, int end) {
+      super(start, end);
+      this.text = text;
+    }
+    @Override char at(int idx) {
+      return text.charAt(idx);
+    }
+    @Override String text() {
+      return text.subSequence(start, end).toString();
+    }
+    private final CharSequence text;
+  }
+
+  private final class Bytes extends Cursor {
+    Bytes(byte[] bytes, int start, int end) {
+      super(start, end);
+      this.bytes = bytes;
+    }
+    @Override char at(int idx) {
+      return (char)(bytes[idx] & 0xFF);
+    }
+    @Override String text() {
+      return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+    }
+    private final byte[] bytes;
+  }
+
+  private final class Buffer extends Cursor {
+    Buffer(ByteBuffer bytes, int start, int end) {
+      super(start, end);
+      this.bytes = bytes;
+    }
+    @Override char at(int idx) {
+      return (char)(bytes.get(idx) & 0xFF);
+    }
+    @Override String text() {
+      byte[] res = new byte[end - start];
+      for(int i = 0; i < res.length; ++i) {
+        res[i] = bytes.get(start + i);
+      }
+      return new String(res, StandardCharsets.US_ASCII);
+    }
+    private final ByteBuffer bytes;
+  }
+}
@@ -0,0 +1,89 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class DateTimeParserTEST {
+
+  @Test public void iso() {
+    test("2025-01-01T01:09:02.25Z", 2025, 1, 1, 1, 9, "2.25", Calendar.GREGORIAN, TimescaleImpl.UTC);
+    test("2025-01-01T01:09:02.25 TT", 2025, 1, 1, 1, 9, "2.25", Calendar.GREGORIAN, TimescaleImpl.TT);
+    test("2025-12-31 23:59:59 TAI", 2025, 12, 31, 23, 59, "59", Calendar.GREGORIAN, TimescaleImpl.TAI);
+  }
+
+  @Test public void calendarsAndYears() {
+    test("1582-10-04 JU 23:59:59 UT1", 1582, 10, 4, 23, 59, "59", Calendar.JULIAN, TimescaleImpl.UT1);
+    test("-4712-01-01 JU 12:00:00 TAI", -4712, 1, 1, 12, 0, "0", Calendar.JULIAN, TimescaleImpl.TAI);
+    test("0-02-29 GR 00:00:00.0 GPS", 0, 2, 29, 0, 0, "0.0", Calendar.GREGORIAN, TimescaleImpl.GPS);
+    test("123456789012-03-01T00:00:00 TDB", 123456789012L, 3, 1, 0, 0, "0", Calendar.GREGORIAN, TimescaleImpl.TDB);
+  }
+
+  @Test public void manyDecimals() {
+    String frac = "1234567890123456789012345678901234567890";
+    test("2025-06-30T12:30:45." + frac + " TT", 2025, 6, 30, 12, 30, "45." + frac, Calendar.GREGORIAN, TimescaleImpl.TT);
+    test("2025-06-30T12:30:45.1234567890123456 TT", 2025, 6, 30, 12, 30, "45.1234567890123456", Calendar.GREGORIAN, TimescaleImpl.TT);
+    test("2025-06-30T12:30:45.12345678901234567 TT", 2025, 6, 30, 12, 30, "45.12345678901234567", Calendar.GREGORIAN, TimescaleImpl.TT);
+  }
+
+  @Test public void roundTrip() {
+    DateTime dt = DateTime.from(-44, 3, 15, 10, 5, big("7.000001"), Calendar.JULIAN, TimescaleImpl.TT);
+    assertEquals(dt, DateTimeParser.standard().parse(dt.toString()));
+  }
+
+  @Test public void regions() {
+    String text = "xx2025-01-01T01:09:02.25Zyy";
+    DateTime expected = DateTime.from(2025, 1, 1, 1, 9, big("2.25"), Calendar.GREGORIAN, TimescaleImpl.UTC);
+    assertEquals(expected, DateTimeParser.standard().parse(text, 2, text.length() - 2));
+    byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+    assertEquals(expected, DateTimeParser.standard().parse(bytes, 2, bytes.length - 4));
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    assertEquals(expected, DateTimeParser.standard().parse(buffer, 2, bytes.length - 4));
+    assertEquals(bytes.length, buffer.position());
+  }
+
+  @Test public void customTimescale() {
+    Timescale custom = new Timescale() {
+      @Override public String id() { return "LOCAL"; }
+    };
+    DateTime dt = DateTimeParser.withTimescales(custom).parse("2025-01-01T00:00:00 LOCAL");
+    assertSame(custom, dt.time().timescale());
+    fails("2025-01-01T00:00:00 LOCAL");
+  }
+
+  @Test public void failures() {
+    fails("");
+    fails("2025-01-01");
+    fails("2025-1-01T00:00:00Z");
+    fails("2025-01-01X00:00:00Z");
+    fails("2025-01-01T00:00:00");
+    fails("2025-01-01T00:00:00 XYZ");
+    fails("2025-01-01T00:00:00.Z");
+    fails("2025-01-01T00:00:00Zjunk");
+    fails("2025-02-30T00:00:00Z");
+    fails("2025-01-01T24:00:00Z");
+    fails("2025-01-01T00:00:60 TT");
+    fails("2025-01-01 XX 00:00:00 TT");
+    fails("1234567890123456789-01-01T00:00:00Z");
+    assertThrows(IllegalArgumentException.class, () -> DateTimeParser.standard().parse("2025", 2, 5));
+  }
+
+  private void test(String text, long y, int m, int d, int h, int min, String sec, Calendar calendar, Timescale timescale) {
+    DateTime expected = DateTime.from(y, m, d, h, min, new BigDecimal(sec), calendar, timescale);
+    DateTime dt = DateTimeParser.standard().parse(text);
+    assertEquals(expected, dt);
+    assertEquals(new BigDecimal(sec).scale(), dt.seconds().scale());
+    byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+    assertEquals(expected, DateTimeParser.standard().parse(bytes, 0, bytes.length));
+  }
+
+  private void fails(String text) {
+    assertThrows(IllegalArgumentException.class, () -> DateTimeParser.standard().parse(text));
+  }
+}
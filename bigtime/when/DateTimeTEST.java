@@ -5,7 +5,9 @@ import org.junit.Test;
 import static bigtime.when.BigDecimalHelper.*;
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.temporal.ChronoUnit;
 
 /** Unit tests. */
 public final class DateTimeTEST {
@@ -51,6 +53,100 @@ public final class DateTimeTEST {
     plusMinusSeconds(dt, "9.123456", 6, DateTime.from(date, Time.from(0,0,big(9.123456),ts)));
   }
   
+  @Test public void plusMinusWithPrecision() {
+    Timescale ts = TimescaleImpl.TT;
+    Date date = Date.gregorian(2026, 1, 1);
+    DateTime dt = DateTime.from(date, Time.zero(ts));
+    Precision precision = Precision.seconds(0);
+    assertEquals(DateTime.from(date, Time.from(0,1,big(0),ts)), dt.plusMinusSeconds(big("60"), precision));
+    assertEquals(DateTime.from(date, Time.from(0,1,big(1),ts)), dt.plusMinusSeconds(big("61"), precision));
+    assertEquals(DateTime.from(date, Time.from(0,1,big(0),ts)), dt.plusMinusSeconds(big("59.9"), precision));
+    assertEquals(DateTime.from(Date.gregorian(2025, 12, 31), Time.from(23,59,big(59),ts)), dt.plusMinusSeconds(big("-1"), precision));
+    assertEquals(DateTime.from(Date.gregorian(2027, 1, 1), Time.zero(ts)), dt.plusMinusDays(big("365"), precision));
+    
+    precision = Precision.seconds(6);
+    assertEquals(DateTime.from(date, Time.from(0,0,big(9.123456),ts)), dt.plusMinusSeconds(big("9.123456"), precision));
+    assertEquals(DateTime.from(date, Time.from(0,0,big("59.999000"),ts)), dt.plusMinusSeconds(big("59.999"), precision));
+  }
+  
+  /** Many small steps don't cause the number of digits to grow. */
+  @Test public void chainWithPrecision() {
+    Timescale ts = TimescaleImpl.TAI;
+    Date date = Date.gregorian(2026, 1, 1);
+    DateTime dt = DateTime.from(date, Time.zero(ts));
+    Precision precision = Precision.seconds(15);
+    BigDecimal step = big("1.000000000000001");
+    for(int i = 0; i < 1000; ++i) {
+      dt = dt.plusMinusSeconds(step, precision);
+      assertTrue(dt.seconds().scale() <= precision.numPlaces());
+    }
+    assertEquals(DateTime.from(date, Time.from(0, 16, big("40.000000000001000"), ts)), dt);
+  }
+  
+  @Test public void julianDateIsCached() {
+    DateTime dt = DateTime.from(Date.gregorian(2000, 1, 1), Time.from(12, 0, big(0), TimescaleImpl.TT));
+    JulianDate jd = dt.toJulianDate();
+    assertEquals(big(2451545.0), jd.jd());
+    assertSame(jd, dt.toJulianDate());
+  }
+  
+  @Test public void nanosArithmetic() {
+    DateTime start = DateTime.gregorianCalendar(2024, 12, 31, 23, 59, big("59.25"), TimescaleImpl.TAI);
+    DateTime end = start.plusMinusSeconds(big("0.75"), 2, RoundingMode.HALF_EVEN);
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 0, 0, big("0.00"), TimescaleImpl.TAI), end);
+    assertEquals(start, end.plusMinusSeconds(big("-0.75"), 2, RoundingMode.HALF_EVEN));
+    assertEquals(big("0.75"), end.secondsFrom(start, 2, RoundingMode.HALF_EVEN));
+    assertEquals(big("-86400.750"), start.secondsFrom(end.plusMinusSeconds(big(86400), 3, RoundingMode.HALF_EVEN), 3, RoundingMode.HALF_EVEN));
+    assertEquals(big("0.500"), DateTime.gregorianCalendar(2025, 1, 1, 12, 0, big(0), TimescaleImpl.TAI).daysFrom(end, 3, RoundingMode.HALF_EVEN));
+  }
+  
+  @Test public void truncateAndRound() {
+    Timescale ts = TimescaleImpl.TT;
+    DateTime dt = DateTime.gregorianCalendar(2024, 12, 31, 23, 44, big("59.9"), ts);
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 30, big(0), ts), dt.truncatedTo(big(900)));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 45, big(0), ts), dt.roundedTo(big(900), RoundingMode.HALF_UP));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 0, big(0), ts), dt.truncatedTo(ChronoUnit.HOURS));
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 0, 0, big(0), ts), dt.roundedTo(ChronoUnit.HOURS, RoundingMode.HALF_EVEN));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 0, 0, big(0), ts), dt.truncatedTo(ChronoUnit.DAYS));
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 0, 0, big(0), ts), dt.roundedTo(ChronoUnit.DAYS, RoundingMode.HALF_EVEN));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 44, big("52.5"), ts), dt.truncatedTo(big("7.5")));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 44, big("59.900"), ts), dt.truncatedTo(ChronoUnit.MILLIS));
+    
+    //more than 9 decimal places: the general case
+    DateTime fine = DateTime.gregorianCalendar(2024, 12, 31, 23, 59, big("59.5000000000001"), ts);
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 59, big(59), ts), fine.truncatedTo(ChronoUnit.SECONDS));
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 0, 0, big(0), ts), fine.roundedTo(BigDecimal.ONE, RoundingMode.HALF_DOWN));
+    assertEquals(DateTime.gregorianCalendar(2024, 12, 31, 23, 59, big("59.5"), ts), fine.roundedTo(big("0.5"), RoundingMode.HALF_EVEN));
+    
+    assertThrows(IllegalArgumentException.class, () -> dt.truncatedTo(big(7)));
+    assertThrows(IllegalArgumentException.class, () -> dt.truncatedTo(big(0)));
+    assertThrows(IllegalArgumentException.class, () -> dt.truncatedTo(ChronoUnit.WEEKS));
+  }
+  
+  /** The long arithmetic on nanoseconds gives the same result as the general case, for every rounding mode. */
+  @Test public void roundingModesOnNanos() {
+    Timescale ts = TimescaleImpl.TT;
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big(10), ts), DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big("7.5"), ts).roundedTo(big(5), RoundingMode.HALF_EVEN));
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big(0), ts), DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big("2.5"), ts).roundedTo(big(5), RoundingMode.HALF_EVEN));
+    assertThrows(ArithmeticException.class, () -> DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big("2.5"), ts).roundedTo(big(5), RoundingMode.UNNECESSARY));
+    assertEquals(DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big(5), ts), DateTime.gregorianCalendar(2025, 1, 1, 10, 0, big(5), ts).roundedTo(big(5), RoundingMode.UNNECESSARY));
+    String[] seconds = {"0", "2.5", "7.5", "1.000000001", "4.999999999", "3.75", "59.999999999"};
+    for(String sec : seconds) {
+      DateTime nanos = DateTime.gregorianCalendar(2025, 1, 1, 10, 59, big(sec), ts);
+      DateTime general = DateTime.gregorianCalendar(2025, 1, 1, 10, 59, big(sec).setScale(12), ts); //more than 9 places
+      for(RoundingMode mode : RoundingMode.values()) {
+        if (mode == RoundingMode.UNNECESSARY) continue;
+        for(String unit : new String[] {"5", "2.5", "0.000000001", "3600"}) {
+          assertEquals(sec + " " + mode + " " + unit, general.roundedTo(big(unit), mode), nanos.roundedTo(big(unit), mode));
+        }
+      }
+    }
+  }
+  
+  @Test public void precisionFails() {
+    assertThrows(IllegalArgumentException.class, () -> Precision.seconds(-2));
+  }
+  
   @Test public void daysFrom() {
     Date date = Date.gregorian(2025, 1, 1);
     Time time = Time.zero(TimescaleImpl.TT);
@@ -0,0 +1,87 @@
+package bigtime.when;
+
+import java.time.DayOfWeek;
+
+/**
+ Integer arithmetic on Julian day numbers.
+
+ <P>The Julian <em>day number</em> is the integer count of days used by Julian dates.
+ It's equal to the Julian date at 12h on a given day, in any {@link Calendar} and any {@link Timescale}.
+ For example, 2000-01-01 in the Gregorian calendar has the day number 2_451_545.
+
+ <P>Many operations on a {@link Date} don't need a {@link JulianDate}, with its fractional day and {@link Timescale}.
+ They need only a day number, which can be computed with <em>long</em> arithmetic alone.
+*/
+final class DayNumber {
+
+  /** Return the day number of the given date. */
+  static long of(long year, int month, int day, Calendar calendar) {
+    return
+      YearStartTable.daysBefore(year, calendar) +
+      daysBeforeMonth(year, month, calendar) +
+      (day - 1) +
+      jan1Year0(calendar)
+    ;
+  }
+
+  /** Return the day number of the given date. */
+  static long of(Date date) {
+    return of(date.year(), date.month(), date.day(), date.calendar());
+  }
+
+  /** Return the date corresponding to the given day number, in the given calendar. The inverse of {@link #of(Date)}. */
+  static Date toDate(long dayNumber, Calendar calendar) {
+    long days = dayNumber - jan1Year0(calendar); //since January 1.0, year 0
+    long year = YearStartTable.yearContaining(days, calendar);
+    int dayOfYear = (int)(days - YearStartTable.daysBefore(year, calendar)); //0-based
+    int month = 1;
+    int length = monthLength(year, month, calendar);
+    while (dayOfYear >= length) {
+      dayOfYear -= length;
+      ++month;
+      length = monthLength(year, month, calendar);
+    }
+    return Date.trusted(year, month, dayOfYear + 1, calendar);
+  }
+
+  /** Return the day of the week corresponding to the given day number. */
+  static DayOfWeek weekday(long dayNumber) {
+    //Explanatory Supplement 2006, page 603: the remainder is 0..6 for Monday..Sunday
+    return DayOfWeek.of((int)Math.floorMod(dayNumber, 7L) + 1);
+  }
+
+  /** The number of days in the months of the given year which precede the given month. */
+  static int daysBeforeMonth(long year, int month, Calendar calendar) {
+    return DAYS_IN_PRECEDING_MONTHS[month] + (month > 2 && calendar.isLeap(year) ? 1 : 0);
+  }
+
+  /** The number of days in the given month of the given year. */
+  static int monthLength(long year, int month, Calendar calendar) {
+    return MONTH_LENGTHS[month] + (month == 2 && calendar.isLeap(year) ? 1 : 0);
+  }
+
+  /** The day number of January 1, year 0, in the given calendar. */
+  static long jan1Year0(Calendar calendar) {
+    return Calendar.GREGORIAN == calendar ? GREGORIAN_JAN_1_YEAR_0 : JULIAN_JAN_1_YEAR_0;
+  }
+
+  /** The Julian date of January 0.0, year 0, plus 1.5 days. */
+  private static final long GREGORIAN_JAN_1_YEAR_0 = 1_721_060L;
+  private static final long JULIAN_JAN_1_YEAR_0 = 1_721_058L;
+
+  /** Lengths of the months in a non-leap year, indexed by the month 1..12 (index 0 is not used). */
+  private static final int[] MONTH_LENGTHS = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+  /** For a non-leap year: Jan=0, Feb=31, Mar=59, ..., indexed by the month 1..12 (index 0 is not used). */
+  private static final int[] DAYS_IN_PRECEDING_MONTHS = daysInPrecedingMonths();
+
+  private static int[] daysInPrecedingMonths() {
+    int accumulator = 0;
+    int[] res = new int[13];
+    for(int month = 1; month <= 12; ++month) {
+      res[month] = accumulator;
+      accumulator += MONTH_LENGTHS[month];
+    }
+    return res;
+  }
+}
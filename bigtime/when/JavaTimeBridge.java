@@ -0,0 +1,201 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ Conversions between this library and <em>java.time</em>.
+
+ <P>An {@link Instant}, and a count of nanoseconds since 1970-01-01 00:00:00, are taken as UTC,
+ as in <em>java.time</em> itself (which ignores leap seconds, as this library does).
+ A {@link LocalDateTime} has no timescale: it has the same fields as a {@link DateTime} in the Gregorian calendar,
+ in whatever timescale the caller chooses.
+
+ <P>The {@link DateTime} objects returned here have a scale of 9 for their seconds (nanoseconds).
+ When going the other way, seconds having more than 9 decimal places are rounded using {@link RoundingMode#HALF_EVEN}.
+
+ <P>Between {@link TimescaleImpl#UTC} and {@link TimescaleImpl#TAI}, {@link TimescaleImpl#TT}, or {@link TimescaleImpl#GPS},
+ the offset is looked up once, turned into nanoseconds, and applied with <em>long</em> arithmetic.
+ Other timescales use {@link DateTime#convertTo(Timescale)}.
+ If the timescales have no defined conversion for a given date, an {@link IllegalArgumentException} is thrown.
+*/
+public final class JavaTimeBridge {
+
+  /** The UTC date-time corresponding to the given {@link Instant}. */
+  public static DateTime from(Instant instant) {
+    return from(instant, TimescaleImpl.UTC);
+  }
+
+  /** The date-time in the given timescale corresponding to the given {@link Instant}. */
+  public static DateTime from(Instant instant, Timescale timescale) {
+    long days = Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY);
+    long nanosOfDay = Math.floorMod(instant.getEpochSecond(), SECONDS_PER_DAY) * NANOS_PER_SECOND + instant.getNano();
+    return fromNanos(UNIX_EPOCH_DAY_NUMBER + days, nanosOfDay, TimescaleImpl.UTC, timescale);
+  }
+
+  /** The {@link Instant} corresponding to the given date-time, in any timescale and calendar. */
+  public static Instant toInstant(DateTime dateTime) {
+    long[] utc = toNanos(dateTime, TimescaleImpl.UTC);
+    long epochSecond = Math.addExact(Math.multiplyExact(utc[0] - UNIX_EPOCH_DAY_NUMBER, (long)SECONDS_PER_DAY), utc[1] / NANOS_PER_SECOND);
+    return Instant.ofEpochSecond(epochSecond, utc[1] % NANOS_PER_SECOND);
+  }
+
+  /**
+   The date-time in the given timescale corresponding to the given count of nanoseconds since 1970-01-01 00:00:00 UTC.
+  */
+  public static DateTime fromEpochNanos(long epochNanos, Timescale timescale) {
+    long days = Math.floorDiv(epochNanos, Time.NANOS_PER_DAY);
+    return fromNanos(UNIX_EPOCH_DAY_NUMBER + days, Math.floorMod(epochNanos, Time.NANOS_PER_DAY), TimescaleImpl.UTC, timescale);
+  }
+
+  /**
+   The number of nanoseconds since 1970-01-01 00:00:00 UTC corresponding to the given date-time.
+   @throws ArithmeticException if the result doesn't fit in a <em>long</em> (outside of the years 1677..2262, roughly).
+  */
+  public static long toEpochNanos(DateTime dateTime) {
+    long[] utc = toNanos(dateTime, TimescaleImpl.UTC);
+    return Math.addExact(Math.multiplyExact(utc[0] - UNIX_EPOCH_DAY_NUMBER, Time.NANOS_PER_DAY), utc[1]);
+  }
+
+  /**
+   Bulk version of {@link #fromEpochNanos(long, Timescale)}.
+   The result has a scale of 9, and is converted to the target timescale as in {@link DateTimeColumn#convertTo(Timescale)}.
+  */
+  public static DateTimeColumn fromEpochNanos(long[] epochNanos, Timescale timescale, Calendar calendar) {
+    long[] dayNumbers = new long[epochNanos.length];
+    long[] timesOfDay = new long[epochNanos.length];
+    for(int idx = 0; idx < epochNanos.length; ++idx) {
+      dayNumbers[idx] = UNIX_EPOCH_DAY_NUMBER + Math.floorDiv(epochNanos[idx], Time.NANOS_PER_DAY);
+      timesOfDay[idx] = Math.floorMod(epochNanos[idx], Time.NANOS_PER_DAY);
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, Time.MAX_NANOS_SCALE, TimescaleImpl.UTC, calendar).convertTo(timescale);
+  }
+
+  /**
+   Bulk version of {@link #toEpochNanos(DateTime)}.
+   A column with a scale of more than 9 is rounded to nanoseconds using {@link RoundingMode#HALF_EVEN}.
+   @throws ArithmeticException if a result doesn't fit in a <em>long</em>.
+  */
+  public static long[] toEpochNanos(DateTimeColumn column) {
+    DateTimeColumn utc = column.convertTo(TimescaleImpl.UTC);
+    long[] res = new long[utc.size()];
+    for(int idx = 0; idx < res.length; ++idx) {
+      long days = utc.dayNumber(idx) - UNIX_EPOCH_DAY_NUMBER;
+      res[idx] = Math.addExact(Math.multiplyExact(days, Time.NANOS_PER_DAY), utc.nanosOfDay(idx));
+    }
+    return res;
+  }
+
+  /** A Gregorian date-time in the given timescale, having the same fields as the given {@link LocalDateTime}. */
+  public static DateTime from(LocalDateTime localDateTime, Timescale timescale) {
+    long nanosOfMinute = localDateTime.getSecond() * NANOS_PER_SECOND + localDateTime.getNano();
+    return DateTime.from(
+      Date.gregorian(localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth()),
+      Time.from(localDateTime.getHour(), localDateTime.getMinute(), BigDecimal.valueOf(nanosOfMinute, Time.MAX_NANOS_SCALE), timescale)
+    );
+  }
+
+  /**
+   A {@link LocalDateTime} having the same fields as the given date-time, in the Gregorian calendar.
+   No change is made to the timescale; it's simply dropped.
+   @throws IllegalArgumentException if the year is outside the range supported by {@link LocalDateTime}.
+  */
+  public static LocalDateTime toLocalDateTime(DateTime dateTime) {
+    DateTime dt = roundToNanos(dateTime);
+    Date date = dt.date();
+    if (date.calendar() != Calendar.GREGORIAN) {
+      date = DayNumber.toDate(DayNumber.of(date), Calendar.GREGORIAN);
+    }
+    if (date.year() < MIN_LOCAL_YEAR || date.year() > MAX_LOCAL_YEAR) {
+      throw new IllegalArgumentException("Year is out of the range of LocalDateTime: " + date.year());
+    }
+    long nanosOfMinute = dt.time().nanosOfDay() % NANOS_PER_MINUTE;
+    return LocalDateTime.of(
+      (int)date.year(), date.month(), date.day(), dt.hour(), dt.minute(),
+      (int)(nanosOfMinute / NANOS_PER_SECOND), (int)(nanosOfMinute % NANOS_PER_SECOND)
+    );
+  }
+
+  /** The Julian day number of 1970-01-01: {@value}. */
+  static final long UNIX_EPOCH_DAY_NUMBER = 2_440_588L;
+
+  private static final long MIN_LOCAL_YEAR = -999_999_999L;
+  private static final long MAX_LOCAL_YEAR = 999_999_999L;
+
+  private JavaTimeBridge() {
+    //prevent construction
+  }
+
+  /**
+   Build a date-time in the target timescale, from a day number and nanos of the day in the source timescale.
+   The nanos can be outside of a single day.
+   Shared with {@link WireTimestamps}.
+  */
+  static DateTime fromNanos(long dayNumber, long nanosOfDay, Timescale source, Timescale target) {
+    long day = dayNumber + Math.floorDiv(nanosOfDay, Time.NANOS_PER_DAY);
+    long nanos = Math.floorMod(nanosOfDay, Time.NANOS_PER_DAY);
+    DateTime res = build(day, nanos, source);
+    if (target == source) {
+      return res;
+    }
+    if (DateTimeColumn.isFixedOffset(source) && DateTimeColumn.isFixedOffset(target)) {
+      nanos = nanos + offsetNanos(res, source, target);
+      return build(day + Math.floorDiv(nanos, Time.NANOS_PER_DAY), Math.floorMod(nanos, Time.NANOS_PER_DAY), target);
+    }
+    return roundToNanos(convert(res, target));
+  }
+
+  /**
+   Return the day number and nanos of the day of the given date-time, after conversion to the target timescale, as a pair.
+   Shared with {@link WireTimestamps}.
+  */
+  static long[] toNanos(DateTime dateTime, Timescale target) {
+    DateTime dt = roundToNanos(dateTime);
+    Timescale timescale = dt.time().timescale();
+    long offset = 0;
+    if (timescale != target) {
+      if (DateTimeColumn.isFixedOffset(timescale) && DateTimeColumn.isFixedOffset(target)) {
+        offset = offsetNanos(dt, timescale, target);
+      }
+      else {
+        dt = roundToNanos(convert(dt, target));
+      }
+    }
+    long nanos = dt.time().nanosOfDay() + offset;
+    return new long[] {DayNumber.of(dt.date()) + Math.floorDiv(nanos, Time.NANOS_PER_DAY), Math.floorMod(nanos, Time.NANOS_PER_DAY)};
+  }
+
+  private static DateTime build(long dayNumber, long nanosOfDay, Timescale timescale) {
+    return DateTime.from(DayNumber.toDate(dayNumber, Calendar.GREGORIAN), Time.ofNanos(nanosOfDay, Time.MAX_NANOS_SCALE, timescale));
+  }
+
+  /** Round the seconds to nanoseconds, if needed. */
+  private static DateTime roundToNanos(DateTime dateTime) {
+    if (dateTime.seconds().scale() > Time.MAX_NANOS_SCALE) {
+      return dateTime.roundSeconds(Time.MAX_NANOS_SCALE, RoundingMode.HALF_EVEN);
+    }
+    return dateTime;
+  }
+
+  private static DateTime convert(DateTime dateTime, Timescale timescale) {
+    return dateTime.convertTo(timescale).orElseThrow(
+      () -> new IllegalArgumentException("No conversion is defined from " + dateTime.time().timescale() + " to " + timescale + " for " + dateTime)
+    );
+  }
+
+  /** The offset (to - from) in nanoseconds, for timescales whose offset from TAI is a fixed number of nanoseconds. */
+  private static long offsetNanos(DateTime when, Timescale from, Timescale to) {
+    Optional<BigDecimal> toMinusTai = to.secondsFromTAI(when);
+    Optional<BigDecimal> fromMinusTai = from.secondsFromTAI(when);
+    if (!toMinusTai.isPresent() || !fromMinusTai.isPresent()) {
+      throw new IllegalArgumentException("No conversion is defined from " + from + " to " + to + " for " + when);
+    }
+    return toMinusTai.get().subtract(fromMinusTai.get()).movePointRight(Time.MAX_NANOS_SCALE).longValueExact();
+  }
+
+}
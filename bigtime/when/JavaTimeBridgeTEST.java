@@ -0,0 +1,68 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class JavaTimeBridgeTEST {
+
+  @Test public void instant() {
+    Instant instant = Instant.parse("2025-06-30T12:30:45.123456789Z");
+    DateTime utc = JavaTimeBridge.from(instant);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 30, big("45.123456789"), TimescaleImpl.UTC), utc);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 31, big("22.123456789"), TimescaleImpl.TAI), JavaTimeBridge.from(instant, TimescaleImpl.TAI));
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 31, big("54.307456789"), TimescaleImpl.TT), JavaTimeBridge.from(instant, TimescaleImpl.TT));
+    assertEquals(instant, JavaTimeBridge.toInstant(utc));
+    for(Timescale timescale : new Timescale[] {TimescaleImpl.TAI, TimescaleImpl.TT, TimescaleImpl.GPS}) {
+      assertEquals(instant, JavaTimeBridge.toInstant(JavaTimeBridge.from(instant, timescale)));
+    }
+    //across midnight
+    DateTime tai = JavaTimeBridge.from(Instant.parse("2025-12-31T23:59:30Z"), TimescaleImpl.TAI);
+    assertEquals(DateTime.gregorianCalendar(2026, 1, 1, 0, 0, big("7.000000000"), TimescaleImpl.TAI), tai);
+    //agrees with the general conversion
+    DateTime tdb = JavaTimeBridge.from(instant, TimescaleImpl.TDB);
+    assertEquals(utc.convertTo(TimescaleImpl.TDB).get().roundSeconds(9, RoundingMode.HALF_EVEN), tdb);
+    //no UTC before 2017, without an override
+    assertThrows(IllegalArgumentException.class, () -> JavaTimeBridge.from(Instant.parse("2000-01-01T00:00:00Z"), TimescaleImpl.TAI));
+    assertEquals(Instant.parse("1600-01-01T00:00:00Z"), JavaTimeBridge.toInstant(DateTime.gregorianCalendar(1600, 1, 1, 0, 0, big("0"), TimescaleImpl.UTC)));
+  }
+
+  @Test public void epochNanos() {
+    long nanos = 1_751_286_645_123_456_789L; //2025-06-30T12:30:45.123456789Z
+    DateTime tt = JavaTimeBridge.fromEpochNanos(nanos, TimescaleImpl.TT);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 31, big("54.307456789"), TimescaleImpl.TT), tt);
+    assertEquals(nanos, JavaTimeBridge.toEpochNanos(tt));
+    assertEquals(-1L, JavaTimeBridge.toEpochNanos(DateTime.gregorianCalendar(1969, 12, 31, 23, 59, big("59.9999999994"), TimescaleImpl.UTC)));
+    assertEquals(0L, JavaTimeBridge.toEpochNanos(DateTime.julianCalendar(1969, 12, 19, 0, 0, big("0"), TimescaleImpl.UTC)));
+    assertThrows(ArithmeticException.class, () -> JavaTimeBridge.toEpochNanos(DateTime.gregorianCalendar(2300, 1, 1, 0, 0, big("0"), TimescaleImpl.UTC)));
+  }
+
+  @Test public void bulkEpochNanos() {
+    long[] nanos = {1_751_286_645_123_456_789L, 1_767_225_599_999_999_999L, 1_767_225_600_000_000_000L};
+    DateTimeColumn tai = JavaTimeBridge.fromEpochNanos(nanos, TimescaleImpl.TAI, Calendar.GREGORIAN);
+    assertEquals(9, tai.scale());
+    for(int idx = 0; idx < nanos.length; ++idx) {
+      assertEquals(JavaTimeBridge.fromEpochNanos(nanos[idx], TimescaleImpl.TAI), tai.get(idx));
+    }
+    assertArrayEquals(nanos, JavaTimeBridge.toEpochNanos(tai));
+    DateTimeColumn fine = DateTimeColumn.of(tai.toList(), 13, TimescaleImpl.TAI, Calendar.GREGORIAN);
+    assertArrayEquals(nanos, JavaTimeBridge.toEpochNanos(fine));
+    DateTimeColumn coarse = DateTimeColumn.of(tai.toList(), 0, TimescaleImpl.TAI, Calendar.GREGORIAN);
+    assertEquals(1_751_286_645_000_000_000L, JavaTimeBridge.toEpochNanos(coarse)[0]);
+  }
+
+  @Test public void localDateTime() {
+    LocalDateTime local = LocalDateTime.of(2025, 6, 30, 12, 30, 45, 123_456_789);
+    DateTime dt = JavaTimeBridge.from(local, TimescaleImpl.TT);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 30, big("45.123456789"), TimescaleImpl.TT), dt);
+    assertEquals(local, JavaTimeBridge.toLocalDateTime(dt));
+    DateTime julian = DateTime.julianCalendar(2025, 6, 17, 23, 59, big("59.9999999999"), TimescaleImpl.TT);
+    assertEquals(LocalDateTime.of(2025, 7, 1, 0, 0), JavaTimeBridge.toLocalDateTime(julian));
+  }
+}
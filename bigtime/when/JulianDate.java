@@ -3,9 +3,11 @@ package bigtime.when;
 import static bigtime.util.Consts.*;
 import static bigtime.when.BigDecimalHelper.*;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Objects;
 
 import bigtime.util.Consts;
 
@@ -35,7 +37,7 @@ import bigtime.util.Consts;
  
  <P><em>Julian dates can be expressed in Universal Time or dynamical time, though the timescale should be specified if it is a concern.</em>
 */
-public final class JulianDate implements Comparable<JulianDate> {
+public final class JulianDate implements Comparable<JulianDate>, Serializable {
 
   /** {@value} corresponds to 1858 November 17 at 0h. */
   public static final BigDecimal MODIFIED_JD_ORIGIN = BigDecimal.valueOf(2400000.5);
@@ -91,6 +93,18 @@ public final class JulianDate implements Comparable<JulianDate> {
     return jd.toBigInteger();
   }
 
+  private static final long serialVersionUID = 1L;
+
+  /** Serialized in a compact binary form. See {@link SerialForm}. */
+  private Object writeReplace() {
+    return new SerialForm(this);
+  }
+
+  /** Instances are always serialized through {@link SerialForm}. */
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized through SerialForm only.");
+  }
+
   /** For debugging/logging only. */
   @Override public String toString() { return jd + " " + timescale; }
   
@@ -98,22 +112,18 @@ public final class JulianDate implements Comparable<JulianDate> {
     if (this == aThat) return true;
     if (!(aThat instanceof JulianDate)) return false;
     JulianDate that = (JulianDate)aThat;
-    for(int i = 0; i < this.getSigFields().length; ++i){
-      if (!Objects.equals(this.getSigFields()[i], that.getSigFields()[i])){
-        return false;
-      }
-    }
-    return true;
+    return this.jd.equals(that.jd) && TimescaleOrder.same(this.timescale, that.timescale);
   }  
   
   @Override public int hashCode() {
-    return Objects.hash(getSigFields());
+    return 31 * jd.hashCode() + TimescaleOrder.hash(timescale);
   }
   
+  /** The {@link Timescale} is the most significant item. Timescales are ordered by their {@link Timescale#rank()}. */
   @Override public int compareTo(JulianDate that) {
     if (this == that) return EQUAL;
 
-    int comparison = this.timescale.id().compareTo(that.timescale.id());
+    int comparison = TimescaleOrder.compare(this.timescale, that.timescale);
     if (comparison != EQUAL) return comparison;
 
     comparison = this.jd.compareTo(that.jd);
@@ -125,16 +135,11 @@ public final class JulianDate implements Comparable<JulianDate> {
   /** {@value} */
   private static final BigDecimal JULIAN_CENTURY_DAYS = BigDecimal.valueOf(DAYS_IN_JULIAN_CENTURY);
 
-  private BigDecimal jd;
-  private Timescale timescale;
+  private final BigDecimal jd;
+  private final Timescale timescale;
   
   private JulianDate(BigDecimal jd, Timescale timescale) {
     this.jd = jd;
     this.timescale = timescale;
   }
-  
-  private Object[] getSigFields() {
-    Object[] res = {jd, timescale};
-    return res;
-  }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package bigtime.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ Read the timestamps in a large text file into a {@link DateTimeColumn}, using many threads.
+
+ <P>The file is split into chunks of complete lines.
+ Each chunk is memory-mapped, and its lines are parsed by a worker thread, straight from the mapped bytes.
+ The parsed timestamps are converted to the timescale of the result, and their seconds are rounded to its scale.
+ The results of the chunks are then joined, in the order of the lines in the file.
+ No String or {@link DateTime} objects are retained, so the memory needed is about 16 bytes per line.
+
+ <P>Each line holds a single timestamp in one of its fields, in a form accepted by {@link DateTimeParser}.
+ Empty lines are ignored.
+ Lines end with <em>\n</em> or <em>\r\n</em>.
+
+ <P>Example:
+ <pre>
+DateTimeColumn column = MappedTimestampReader.to(TimescaleImpl.TAI, Calendar.GREGORIAN).column(2, ',').skipLines(1).read(path);
+ </pre>
+
+ <P>Instances of this class are immutable, and can be shared between threads.
+*/
+public final class MappedTimestampReader {
+
+  /**
+   A reader whose results are in the given timescale and calendar.
+   The defaults: the timestamp is the first field, with ',' between fields; no lines are skipped;
+   the seconds are rounded to 9 decimal places (nanoseconds); one thread for each available processor;
+   the timescales in {@link TimescaleImpl} are recognized.
+  */
+  public static MappedTimestampReader to(Timescale timescale, Calendar calendar) {
+    return new MappedTimestampReader(timescale, calendar, 0, (byte)',', 0, 9, Runtime.getRuntime().availableProcessors(), DateTimeParser.standard(), DEFAULT_CHUNK_BYTES);
+  }
+
+  /**
+   The field holding the timestamp.
+   @param column 0-based index of the field.
+   @param delimiter an ASCII character between fields.
+  */
+  public MappedTimestampReader column(int column, char delimiter) {
+    if (column < 0) {
+      throw new IllegalArgumentException("Column cannot be negative: " + column);
+    }
+    if (delimiter > 127) {
+      throw new IllegalArgumentException("Delimiter is not an ASCII character: " + delimiter);
+    }
+    return new MappedTimestampReader(timescale, calendar, column, (byte)delimiter, skipLines, scale, threads, parser, chunkBytes);
+  }
+
+  /** The number of header lines at the start of the file, which are not read. */
+  public MappedTimestampReader skipLines(int numLines) {
+    if (numLines < 0) {
+      throw new IllegalArgumentException("Number of lines to skip cannot be negative: " + numLines);
+    }
+    return new MappedTimestampReader(timescale, calendar, column, delimiter, numLines, scale, threads, parser, chunkBytes);
+  }
+
+  /**
+   The scale of the result. Seconds having more decimal places are rounded using {@link java.math.RoundingMode#HALF_EVEN}.
+   @param scale range [0, {@value DateTimeColumn#MAX_SCALE}]
+  */
+  public MappedTimestampReader scale(int scale) {
+    DateTimeColumn.checkScale(scale);
+    return new MappedTimestampReader(timescale, calendar, column, delimiter, skipLines, scale, threads, parser, chunkBytes);
+  }
+
+  /** The number of worker threads. */
+  public MappedTimestampReader threads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be at least 1: " + threads);
+    }
+    return new MappedTimestampReader(timescale, calendar, column, delimiter, skipLines, scale, threads, parser, chunkBytes);
+  }
+
+  /** The parser for the timestamps. Use this to recognize custom timescales. */
+  public MappedTimestampReader parser(DateTimeParser parser) {
+    return new MappedTimestampReader(timescale, calendar, column, delimiter, skipLines, scale, threads, parser, chunkBytes);
+  }
+
+  /**
+   Read the given file.
+   @throws IllegalArgumentException if a line can't be parsed, or its timestamp can't be converted to the target timescale.
+   The message includes the byte offset of the line in the file.
+  */
+  public DateTimeColumn read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long start = 0;
+      for(int i = 0; i < skipLines; ++i) {
+        start = nextLineStart(channel, start, size);
+      }
+      List<Long> bounds = chunkBounds(channel, start, size);
+      int numChunks = bounds.size() - 1;
+      Part[] parts = new Part[numChunks];
+      if (numChunks == 1) {
+        parts[0] = readChunk(channel, bounds.get(0), bounds.get(1));
+      }
+      else if (numChunks > 1) {
+        readInParallel(channel, bounds, parts);
+      }
+      return join(parts);
+    }
+  }
+
+  /** For testing only. Small chunks exercise the logic for splitting the file. */
+  MappedTimestampReader chunkBytes(int chunkBytes) {
+    return new MappedTimestampReader(timescale, calendar, column, delimiter, skipLines, scale, threads, parser, chunkBytes);
+  }
+
+  private final Timescale timescale;
+  private final Calendar calendar;
+  private final int column;
+  private final byte delimiter;
+  private final int skipLines;
+  private final int scale;
+  private final int threads;
+  private final DateTimeParser parser;
+  private final int chunkBytes;
+
+  /** Each chunk must fit in a single {@link MappedByteBuffer}. */
+  private static final int DEFAULT_CHUNK_BYTES = 64 * 1024 * 1024;
+  private static final int SCAN_BYTES = 8 * 1024;
+
+  private MappedTimestampReader(Timescale timescale, Calendar calendar, int column, byte delimiter, int skipLines, int scale, int threads, DateTimeParser parser, int chunkBytes) {
+    this.timescale = timescale;
+    this.calendar = calendar;
+    this.column = column;
+    this.delimiter = delimiter;
+    this.skipLines = skipLines;
+    this.scale = scale;
+    this.threads = threads;
+    this.parser = parser;
+    this.chunkBytes = chunkBytes;
+  }
+
+  /** The start of each chunk, followed by the end of the last chunk. Each chunk starts at the start of a line. */
+  private List<Long> chunkBounds(FileChannel channel, long start, long size) throws IOException {
+    List<Long> res = new ArrayList<>();
+    res.add(start);
+    long bound = start;
+    while (bound < size) {
+      bound = nextLineStart(channel, Math.min(bound + chunkBytes, size) - 1, size);
+      res.add(bound);
+    }
+    return res;
+  }
+
+  /** Return the index after the first '\n' at or after the given position, or the size of the file if there is none. */
+  private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+    long pos = position;
+    while (pos < size) {
+      buffer.clear();
+      int numRead = channel.read(buffer, pos);
+      if (numRead <= 0) break;
+      for(int i = 0; i < numRead; ++i) {
+        if (buffer.get(i) == '\n') return pos + i + 1;
+      }
+      pos += numRead;
+    }
+    return size;
+  }
+
+  private void readInParallel(FileChannel channel, List<Long> bounds, Part[] parts) throws IOException {
+    ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, parts.length), task -> {
+      Thread thread = new Thread(task, "mapped-timestamp-reader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<Part>> futures = new ArrayList<>();
+      for(int i = 0; i < parts.length; ++i) {
+        long from = bounds.get(i);
+        long to = bounds.get(i + 1);
+        futures.add(workers.submit(() -> readChunk(channel, from, to)));
+      }
+      for(int i = 0; i < parts.length; ++i) {
+        parts[i] = futures.get(i).get();
+      }
+    }
+    catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading.", ex);
+    }
+    catch(ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+      if (cause instanceof IOException) throw (IOException)cause;
+      throw new IOException(cause);
+    }
+    finally {
+      workers.shutdownNow();
+    }
+  }
+
+  /** Parse the lines in the given region of the file. */
+  private Part readChunk(FileChannel channel, long from, long to) throws IOException {
+    MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    int length = (int)(to - from);
+    Part res = new Part(length / 32 + 16);
+    int lineStart = 0;
+    while (lineStart < length) {
+      int lineEnd = lineStart;
+      while (lineEnd < length && bytes.get(lineEnd) != '\n') ++lineEnd;
+      int contentEnd = (lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r') ? lineEnd - 1 : lineEnd;
+      if (contentEnd > lineStart) {
+        try {
+          readLine(bytes, lineStart, contentEnd, res);
+        }
+        catch(IllegalArgumentException ex) {
+          throw new IllegalArgumentException("Line at byte offset " + (from + lineStart) + ": " + ex.getMessage(), ex);
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+    return res;
+  }
+
+  private void readLine(ByteBuffer bytes, int start, int end, Part part) {
+    int fieldStart = start;
+    for(int i = 0; i < column; ++i) {
+      while (fieldStart < end && bytes.get(fieldStart) != delimiter) ++fieldStart;
+      if (fieldStart == end) {
+        throw new IllegalArgumentException("Line has fewer than " + (column + 1) + " fields.");
+      }
+      ++fieldStart; //skip the delimiter
+    }
+    int fieldEnd = fieldStart;
+    while (fieldEnd < end && bytes.get(fieldEnd) != delimiter) ++fieldEnd;
+    DateTime dt = DateTimeColumn.normalize(parser.parse(bytes, fieldStart, fieldEnd - fieldStart), timescale, scale);
+    part.add(DayNumber.of(dt.date()), DateTimeColumn.timeOfDay(dt.time(), scale));
+  }
+
+  private DateTimeColumn join(Part[] parts) {
+    int total = 0;
+    for(Part part : parts) {
+      total = Math.addExact(total, part.size);
+    }
+    long[] dayNumbers = new long[total];
+    long[] timesOfDay = new long[total];
+    int idx = 0;
+    for(Part part : parts) {
+      System.arraycopy(part.dayNumbers, 0, dayNumbers, idx, part.size);
+      System.arraycopy(part.timesOfDay, 0, timesOfDay, idx, part.size);
+      idx += part.size;
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, scale, timescale, calendar);
+  }
+
+  /** The result of reading a single chunk. Growable arrays. */
+  private static final class Part {
+    Part(int capacity) {
+      dayNumbers = new long[capacity];
+      timesOfDay = new long[capacity];
+    }
+    void add(long dayNumber, long timeOfDay) {
+      if (size == dayNumbers.length) {
+        dayNumbers = Arrays.copyOf(dayNumbers, size * 2);
+        timesOfDay = Arrays.copyOf(timesOfDay, size * 2);
+      }
+      dayNumbers[size] = dayNumber;
+      timesOfDay[size] = timeOfDay;
+      ++size;
+    }
+    long[] dayNumbers;
+    long[] timesOfDay;
+    int size;
+  }
+}
@@ -0,0 +1,90 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class MappedTimestampReaderTEST {
+
+  @Test public void manyChunks() throws IOException {
+    StringBuilder text = new StringBuilder("id,when\r\n");
+    int numLines = 2000;
+    for(int i = 0; i < numLines; ++i) {
+      text.append(i).append(",2025-06-").append(10 + i % 20).append("T12:").append(10 + i % 50).append(":05.25 TT\r\n");
+      if (i % 100 == 0) {
+        text.append("\r\n"); //ignored
+      }
+    }
+    Path file = write(text.toString());
+    try {
+      MappedTimestampReader reader = MappedTimestampReader.to(TimescaleImpl.TT, Calendar.GREGORIAN).column(1, ',').skipLines(1);
+      DateTimeColumn column = reader.threads(4).chunkBytes(100).read(file);
+      assertEquals(numLines, column.size());
+      assertEquals(9, column.scale());
+      for(int i = 0; i < numLines; ++i) {
+        DateTime expected = DateTime.gregorianCalendar(2025, 6, 10 + i % 20, 12, 10 + i % 50, big("5.250000000"), TimescaleImpl.TT);
+        assertEquals(expected, column.get(i));
+      }
+      DateTimeColumn single = reader.threads(1).read(file);
+      assertArrayEquals(column.dayNumbers(), single.dayNumbers());
+      assertArrayEquals(column.timesOfDay(), single.timesOfDay());
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test public void convertAndRound() throws IOException {
+    Path file = write("2025-06-30T23:59:22.9996Z\n2000-01-01 JU 00:00:00 TAI");
+    try {
+      DateTimeColumn column = MappedTimestampReader.to(TimescaleImpl.TAI, Calendar.JULIAN).scale(3).chunkBytes(10).read(file);
+      assertEquals(2, column.size());
+      //37 s for TAI - UTC, then rounding rolls over to the next day
+      assertEquals(DateTime.julianCalendar(2025, 6, 18, 0, 0, big("0.000"), TimescaleImpl.TAI), column.get(0));
+      assertEquals(DayNumber.of(Date.gregorian(2025, 7, 1)), column.dayNumber(0));
+      assertEquals(0L, column.timeOfDay(0));
+      assertEquals(DateTime.julianCalendar(2000, 1, 1, 0, 0, big("0.000"), TimescaleImpl.TAI), column.get(1));
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test public void largeScale() throws IOException {
+    Path file = write("2025-01-01T01:02:03.123456789012 TT\n");
+    try {
+      DateTimeColumn column = MappedTimestampReader.to(TimescaleImpl.TT, Calendar.GREGORIAN).scale(13).read(file);
+      assertEquals(37_231_234_567_890_120L, column.timeOfDay(0));
+      assertEquals(big("3.1234567890120"), column.get(0).seconds());
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test public void failures() throws IOException {
+    Path file = write("2025-01-01T01:02:03 TT\n2025-01-01T01:02:03 XX\n");
+    try {
+      IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> MappedTimestampReader.to(TimescaleImpl.TT, Calendar.GREGORIAN).read(file));
+      assertTrue(ex.getMessage(), ex.getMessage().startsWith("Line at byte offset 23:"));
+      assertThrows(IllegalArgumentException.class, () -> MappedTimestampReader.to(TimescaleImpl.TT, Calendar.GREGORIAN).column(1, ',').read(file));
+      assertThrows(IllegalArgumentException.class, () -> MappedTimestampReader.to(TimescaleImpl.TT, Calendar.GREGORIAN).scale(14));
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  private static Path write(String text) throws IOException {
+    Path res = Files.createTempFile("mapped", ".txt");
+    Files.write(res, text.getBytes(StandardCharsets.US_ASCII));
+    return res;
+  }
+}
@@ -43,7 +43,7 @@ final class Odometer {
       hour = 0;
       ++day;
     }
-    if (day > Month.of(month).length(orig.date().calendar().isLeap(year))) {
+    if (day > DayNumber.monthLength(year, month, orig.date().calendar())) {
       day = 1;
       ++month;
     }
@@ -51,6 +51,18 @@ final class Odometer {
       month = Month.JANUARY.getValue();
       ++year;
     }
-    return DateTime.from(year, month, day, hour, minute, seconds, orig.date().calendar(), orig.time().timescale());
+    //valid by construction: no need to validate again
+    Date date = Date.trusted(year, month, day, orig.date().calendar());
+    Time time = Time.trusted(hour, minute, seconds, orig.time().timescale());
+    return DateTime.from(date, time);
+  }
+  
+  /**
+   Rollover the given {@link DateTime} to 0h on the next day.
+   This is the fence-post case for rounding to a unit of time that divides a day evenly: a result of 24h exactly.
+   The returned object has the same {@link Calendar} and {@link Timescale} as the given {@link DateTime}.
+  */
+  static DateTime nextDay(DateTime orig) {
+    return DateTime.from(orig.date().next(), Time.zero(orig.time().timescale()));
   }
 }
\ No newline at end of file
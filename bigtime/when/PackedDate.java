@@ -0,0 +1,155 @@
+package bigtime.when;
+
+import java.time.DayOfWeek;
+
+import bigtime.util.Check;
+
+/**
+ Encode a {@link Date} as a single <em>long</em>, and operate on such packed dates.
+
+ <P>A packed date is a compact alternative to a {@link Date} object.
+ It can be stored in a <em>long[]</em> array, or as the key of a map that uses primitive keys,
+ at a small fraction of the memory used by {@link Date} objects.
+
+ <P>The 64 bits of a packed date hold, from the most significant to the least significant:
+ <ul>
+  <li>1 bit for the {@link Calendar}
+  <li>54 bits for the year, in the range [{@link #MIN_YEAR}, {@link #MAX_YEAR}]
+  <li>4 bits for the month
+  <li>5 bits for the day
+ </ul>
+
+ <P>The sign bit is flipped, so that comparing two packed dates as signed <em>long</em>s gives the same result
+ as {@link Date#compareTo(Date)}. That is, the {@link Calendar} is the most significant item, followed by the year, the month, and the day.
+*/
+public final class PackedDate {
+
+  /** The smallest year that can be packed: {@value}. */
+  public static final long MIN_YEAR = -(1L << 53);
+
+  /** The largest year that can be packed: {@value}. */
+  public static final long MAX_YEAR = (1L << 53) - 1;
+
+  /** Pack the given {@link Date} into a <em>long</em>. */
+  public static long pack(Date date) {
+    return pack(date.year(), date.month(), date.day(), date.calendar());
+  }
+
+  /**
+   Pack the given date into a <em>long</em>.
+   @param year in the range [{@link #MIN_YEAR}, {@link #MAX_YEAR}]
+   @param month range [1,12]
+   @param day range [1,31], with an extra check according to the month-year, to account for leap years
+  */
+  public static long pack(long year, int month, int day, Calendar calendar) {
+    if (year < MIN_YEAR || year > MAX_YEAR) {
+      throw new IllegalArgumentException("Year " + year + " is not in range [" + MIN_YEAR + ".." + MAX_YEAR + "]");
+    }
+    Check.range(month, 1, 12);
+    Check.range(day, 1, DayNumber.monthLength(year, month, calendar));
+    return packNoChecks(year, month, day, calendar);
+  }
+
+  /** Return the {@link Date} corresponding to the given packed date. */
+  public static Date unpack(long packed) {
+    return Date.from(year(packed), month(packed), day(packed), calendar(packed));
+  }
+
+  /** The year of the given packed date. */
+  public static long year(long packed) {
+    return ((flip(packed) >>> YEAR_SHIFT) & YEAR_MASK) - YEAR_BIAS;
+  }
+
+  /** The month of the given packed date, in the range [1,12]. */
+  public static int month(long packed) {
+    return (int)((packed >>> MONTH_SHIFT) & MONTH_MASK);
+  }
+
+  /** The day of the month of the given packed date. */
+  public static int day(long packed) {
+    return (int)(packed & DAY_MASK);
+  }
+
+  /** The {@link Calendar} of the given packed date. */
+  public static Calendar calendar(long packed) {
+    return CALENDARS[(int)(flip(packed) >>> CALENDAR_SHIFT)];
+  }
+
+  /** Same as {@link Date#compareTo(Date)}, applied to the corresponding dates. */
+  public static int compare(long packedA, long packedB) {
+    return Long.compare(packedA, packedB);
+  }
+
+  /** The day after the given packed date, in the same {@link Calendar}. */
+  public static long next(long packed) {
+    long year = year(packed);
+    int month = month(packed);
+    int day = day(packed);
+    Calendar calendar = calendar(packed);
+    if (day < DayNumber.monthLength(year, month, calendar)) {
+      return packed + 1; //by far the most common case
+    }
+    if (month < 12) {
+      return packNoChecks(year, month + 1, 1, calendar);
+    }
+    if (year == MAX_YEAR) {
+      throw new IllegalArgumentException("Year " + (year + 1) + " is out of range for a packed date.");
+    }
+    return packNoChecks(year + 1, 1, 1, calendar);
+  }
+
+  /** The day before the given packed date, in the same {@link Calendar}. */
+  public static long previous(long packed) {
+    int day = day(packed);
+    if (day > 1) {
+      return packed - 1; //by far the most common case
+    }
+    long year = year(packed);
+    int month = month(packed);
+    Calendar calendar = calendar(packed);
+    if (month > 1) {
+      return packNoChecks(year, month - 1, DayNumber.monthLength(year, month - 1, calendar), calendar);
+    }
+    if (year == MIN_YEAR) {
+      throw new IllegalArgumentException("Year " + (year - 1) + " is out of range for a packed date.");
+    }
+    return packNoChecks(year - 1, 12, 31, calendar);
+  }
+
+  /** The day of the week for the given packed date. Same as {@link Date#weekday()}. */
+  public static DayOfWeek weekday(long packed) {
+    return DayNumber.weekday(DayNumber.of(year(packed), month(packed), day(packed), calendar(packed)));
+  }
+
+  private static final int DAY_BITS = 5;
+  private static final int MONTH_BITS = 4;
+  private static final int YEAR_BITS = 54;
+
+  private static final int MONTH_SHIFT = DAY_BITS;
+  private static final int YEAR_SHIFT = DAY_BITS + MONTH_BITS;
+  private static final int CALENDAR_SHIFT = DAY_BITS + MONTH_BITS + YEAR_BITS; //63
+
+  private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+  private static final long MONTH_MASK = (1L << MONTH_BITS) - 1;
+  private static final long YEAR_MASK = (1L << YEAR_BITS) - 1;
+
+  /** Makes the stored year non-negative. */
+  private static final long YEAR_BIAS = 1L << 53;
+
+  private static final Calendar[] CALENDARS = Calendar.values();
+
+  private static long packNoChecks(long year, int month, int day, Calendar calendar) {
+    long res =
+      ((long)calendar.ordinal() << CALENDAR_SHIFT) |
+      ((year + YEAR_BIAS) << YEAR_SHIFT) |
+      ((long)month << MONTH_SHIFT) |
+      day
+    ;
+    return flip(res);
+  }
+
+  /** Flip the sign bit. This makes the ordering of packed dates match the ordering of {@link Date}s. */
+  private static long flip(long val) {
+    return val ^ Long.MIN_VALUE;
+  }
+}
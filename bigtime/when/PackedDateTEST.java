@@ -0,0 +1,86 @@
+package bigtime.when;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/** Unit tests. */
+public final class PackedDateTEST {
+
+  @Test public void roundTrip() {
+    for(Calendar calendar : Calendar.values()) {
+      roundTrip(Date.from(2025, 10, 2, calendar));
+      roundTrip(Date.from(0, 1, 1, calendar));
+      roundTrip(Date.from(-1, 12, 31, calendar));
+      roundTrip(Date.from(-4713, 11, 24, calendar));
+      roundTrip(Date.from(1960, 2, 29, calendar));
+      roundTrip(Date.from(PackedDate.MAX_YEAR, 12, 31, calendar));
+      roundTrip(Date.from(PackedDate.MIN_YEAR, 1, 1, calendar));
+    }
+  }
+  
+  @Test public void sameOrderAsDate() {
+    List<Date> dates = new ArrayList<>();
+    for(Calendar calendar : Calendar.values()) {
+      for(long year : new long[] {PackedDate.MIN_YEAR, -2001, -1, 0, 1, 1999, 2000, PackedDate.MAX_YEAR}) {
+        for(int month : new int[] {1, 2, 11, 12}) {
+          for(int day : new int[] {1, 15, 28}) {
+            dates.add(Date.from(year, month, day, calendar));
+          }
+        }
+      }
+    }
+    Collections.shuffle(dates, new Random(42));
+    for(Date a : dates) {
+      for(Date b : dates) {
+        int expected = Integer.signum(a.compareTo(b));
+        assertEquals(expected, Integer.signum(PackedDate.compare(PackedDate.pack(a), PackedDate.pack(b))));
+      }
+    }
+  }
+  
+  @Test public void nextAndPrevious() {
+    for(Calendar calendar : Calendar.values()) {
+      Date date = Date.from(1899, 12, 1, calendar);
+      long packed = PackedDate.pack(date);
+      for(int i = 0; i < 1000; ++i) {
+        Date next = date.next();
+        long packedNext = PackedDate.next(packed);
+        assertEquals(PackedDate.pack(next), packedNext);
+        assertEquals(packed, PackedDate.previous(packedNext));
+        date = next;
+        packed = packedNext;
+      }
+    }
+  }
+
+  @Test public void weekday() {
+    for(Calendar calendar : Calendar.values()) {
+      Date date = Date.from(1999, 12, 20, calendar);
+      for(int i = 0; i < 30; ++i) {
+        assertEquals(date.weekday(), PackedDate.weekday(PackedDate.pack(date)));
+        date = date.next();
+      }
+    }
+  }
+  
+  @Test public void fails() {
+    assertThrows(IllegalArgumentException.class, () -> PackedDate.pack(PackedDate.MAX_YEAR + 1, 1, 1, Calendar.GREGORIAN));
+    assertThrows(IllegalArgumentException.class, () -> PackedDate.pack(2025, 2, 29, Calendar.GREGORIAN));
+    assertThrows(IllegalArgumentException.class, () -> PackedDate.next(PackedDate.pack(PackedDate.MAX_YEAR, 12, 31, Calendar.JULIAN)));
+  }
+
+  private void roundTrip(Date date) {
+    long packed = PackedDate.pack(date);
+    assertEquals(date, PackedDate.unpack(packed));
+    assertEquals(date.year(), PackedDate.year(packed));
+    assertEquals(date.month(), PackedDate.month(packed));
+    assertEquals(date.day(), PackedDate.day(packed));
+    assertEquals(date.calendar(), PackedDate.calendar(packed));
+  }
+}
@@ -0,0 +1,94 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+import static bigtime.when.BigDecimalHelper.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ A declared precision for the seconds field, used as a budget in date-time arithmetic.
+
+ <P>By default, date-time arithmetic divides by the number of seconds in a day using {@link BigDecimalHelper#divide(BigDecimal, BigDecimal)}.
+ That division usually doesn't terminate, and the result then carries {@link BigDecimalHelper#infiniteCutoffPrecision()} digits.
+ Those long values then flow through the rest of the calculation.
+
+ <P>When you know the precision you need for the seconds, you can pass a {@link Precision} to the arithmetic methods
+ of {@link DateTime}. All intermediate values are then kept at a scale that's just large enough to support
+ the declared precision, and no more. The final result has its seconds rounded to the declared precision.
+ Long chains of operations then no longer slow down from one step to the next.
+
+ <P>A fractional day is kept to {@link #GUARD_DIGITS} more decimal places than the seconds,
+ since a day has fewer than 10<sup>5</sup> seconds.
+*/
+public final class Precision {
+
+  /**
+   Factory method.
+   @param numPlaces number of decimal places for the seconds. Must be -1 or more, as in {@link DateTime#roundSeconds(int, RoundingMode)}.
+   @param roundingMode used when rounding the seconds field of a result.
+  */
+  public static Precision seconds(int numPlaces, RoundingMode roundingMode) {
+    return new Precision(numPlaces, roundingMode);
+  }
+
+  /** As in the other factory method, but using the HALF_EVEN rounding mode. */
+  public static Precision seconds(int numPlaces) {
+    return new Precision(numPlaces, RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   The number of extra decimal places used for fractional days, with respect to seconds: {@value}.
+   Five for the number of seconds in a day, and one more as a guard digit.
+  */
+  public static final int GUARD_DIGITS = 6;
+
+  /** The number of decimal places for the seconds. */
+  public int numPlaces() { return numPlaces; }
+
+  /** Used when rounding the seconds field of a result. */
+  public RoundingMode roundingMode() { return roundingMode; }
+
+  /** The number of decimal places used for fractional days, and Julian dates. */
+  public int dayScale() { return numPlaces + GUARD_DIGITS; }
+
+  /** Convert seconds to days, with the result's scale set to {@link #dayScale()}. */
+  BigDecimal secondsToDays(BigDecimal seconds) {
+    return seconds.divide(SECONDS_IN_A_DAY, dayScale(), RoundingMode.HALF_EVEN);
+  }
+
+  /** Reduce the scale of the given number of days to {@link #dayScale()}, if it's larger than that. */
+  BigDecimal bounded(BigDecimal days) {
+    return days.scale() > dayScale() ? days.setScale(dayScale(), RoundingMode.HALF_EVEN) : days;
+  }
+
+  /** Intended for logging only. Example: <em>seconds to 9 places, HALF_EVEN</em> */
+  @Override public String toString() {
+    return "seconds to " + numPlaces + " places, " + roundingMode;
+  }
+
+  @Override public boolean equals(Object aThat) {
+    if (this == aThat) return true;
+    if (!(aThat instanceof Precision)) return false;
+    Precision that = (Precision)aThat;
+    return this.numPlaces == that.numPlaces && this.roundingMode == that.roundingMode;
+  }
+
+  @Override public int hashCode() {
+    return Objects.hash(numPlaces, roundingMode);
+  }
+
+  private final int numPlaces;
+  private final RoundingMode roundingMode;
+
+  private static final BigDecimal SECONDS_IN_A_DAY = big(SECONDS_PER_DAY);
+
+  private Precision(int numPlaces, RoundingMode roundingMode) {
+    if (numPlaces < -1) {
+      throw new IllegalArgumentException("Num places should be -1 or more: " + numPlaces);
+    }
+    this.numPlaces = numPlaces;
+    this.roundingMode = roundingMode;
+  }
+}
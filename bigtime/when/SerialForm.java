@@ -0,0 +1,154 @@
+package bigtime.when;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ The serialized form of {@link Date}, {@link Time}, {@link DateTime}, and {@link JulianDate}.
+
+ <P>Those classes use this class as a <em>serialization proxy</em>: when serialized, they're replaced by an
+ instance of this class, and when deserialized, the instance of this class is replaced by the original item.
+ The original item is rebuilt through its public factory methods, so its invariants are always checked.
+
+ <P>The data is:
+ <ul>
+  <li>1 byte for the kind of item, with a flag bit set if the item has a timescale not in {@link TimescaleImpl}.
+  <li>only if that flag is set: the timescale, written as an object. It must be serializable.
+  <li>the length of the {@link BinaryCodec} form of the item: 1 byte, or 1 byte of 0xFF followed by a 4 byte int.
+  <li>the {@link BinaryCodec} form of the item.
+ </ul>
+ For example, <em>2025-01-01 01:09:02.125 TT</em> needs 13 bytes.
+ The stream adds about 9 bytes for each object, and writes the description of this class only once.
+
+ <P>This class is public only because {@link Externalizable} requires it. It's not intended for direct use.
+*/
+public final class SerialForm implements Externalizable {
+
+  /** Needed by {@link Externalizable}. Not intended for direct use. */
+  public SerialForm() {
+    //for deserialization
+  }
+
+  @Override public void writeExternal(ObjectOutput out) throws IOException {
+    Timescale timescale = timescale(item);
+    boolean custom = timescale != null && !(timescale instanceof TimescaleImpl);
+    out.writeByte(custom ? kind | CUSTOM_TIMESCALE : kind);
+    if (custom) {
+      out.writeObject(timescale);
+    }
+    ByteBuffer buffer = encode(item, custom ? BinaryCodec.withTimescales(timescale) : BinaryCodec.standard());
+    int length = buffer.position();
+    if (length < LONG_LENGTH) {
+      out.writeByte(length);
+    }
+    else {
+      out.writeByte(LONG_LENGTH);
+      out.writeInt(length);
+    }
+    out.write(buffer.array(), 0, length);
+  }
+
+  @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+    int flags = in.readUnsignedByte();
+    kind = (byte)(flags & ~CUSTOM_TIMESCALE);
+    if (kind < DATE || kind > JULIAN_DATE) {
+      throw new InvalidObjectException("Unknown kind of item: " + kind);
+    }
+    BinaryCodec codec = BinaryCodec.standard();
+    if ((flags & CUSTOM_TIMESCALE) != 0) {
+      codec = BinaryCodec.withTimescales((Timescale)in.readObject());
+    }
+    int length = in.readUnsignedByte();
+    if (length == LONG_LENGTH) {
+      length = in.readInt();
+    }
+    if (length < 0) {
+      throw new InvalidObjectException("Negative length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    try {
+      item = decode(ByteBuffer.wrap(bytes), codec);
+    }
+    catch(RuntimeException ex) {
+      InvalidObjectException res = new InvalidObjectException("Corrupt data: " + ex.getMessage());
+      res.initCause(ex);
+      throw res;
+    }
+  }
+
+  /** Called when the stream is read, to replace this object with the item it holds. */
+  private Object readResolve() throws ObjectStreamException {
+    return item;
+  }
+
+  /** Used by the classes being serialized. */
+  SerialForm(Object item) {
+    this.item = item;
+    this.kind = kindOf(item);
+  }
+
+  private static final long serialVersionUID = 1L;
+
+  private static final byte DATE = 1;
+  private static final byte TIME = 2;
+  private static final byte DATE_TIME = 3;
+  private static final byte JULIAN_DATE = 4;
+
+  /** Marks a length that doesn't fit in a single byte. */
+  private static final int LONG_LENGTH = 0xFF;
+  /** Flag bit in the kind, for a custom timescale written as an object. */
+  private static final int CUSTOM_TIMESCALE = 0x80;
+
+  private byte kind;
+  private Object item;
+
+  private static byte kindOf(Object item) {
+    if (item instanceof Date) return DATE;
+    if (item instanceof Time) return TIME;
+    if (item instanceof DateTime) return DATE_TIME;
+    return JULIAN_DATE;
+  }
+
+  private static Timescale timescale(Object item) {
+    if (item instanceof Time) return ((Time)item).timescale();
+    if (item instanceof DateTime) return ((DateTime)item).time().timescale();
+    if (item instanceof JulianDate) return ((JulianDate)item).timescale();
+    return null;
+  }
+
+  private static ByteBuffer encode(Object item, BinaryCodec codec) {
+    int size = 32;
+    while (true) {
+      ByteBuffer res = ByteBuffer.allocate(size);
+      try {
+        if (item instanceof Date) codec.encode((Date)item, res);
+        else if (item instanceof Time) codec.encode((Time)item, res);
+        else if (item instanceof DateTime) codec.encode((DateTime)item, res);
+        else codec.encode((JulianDate)item, res);
+        return res;
+      }
+      catch(BufferOverflowException ex) {
+        size *= 2;
+      }
+    }
+  }
+
+  private Object decode(ByteBuffer source, BinaryCodec codec) {
+    Object res;
+    if (kind == DATE) res = codec.decodeDate(source);
+    else if (kind == TIME) res = codec.decodeTime(source);
+    else if (kind == DATE_TIME) res = codec.decodeDateTime(source);
+    else res = codec.decodeJulianDate(source);
+    if (source.hasRemaining()) {
+      throw new IllegalArgumentException(source.remaining() + " bytes left over.");
+    }
+    return res;
+  }
+}
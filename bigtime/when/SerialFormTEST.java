@@ -0,0 +1,113 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class SerialFormTEST {
+
+  @Test public void roundTrip() throws Exception {
+    List<Object> items = List.of(
+      Date.gregorian(2025, 6, 30),
+      Date.julian(-4712, 1, 1),
+      Time.from(1, 9, big("2.25"), TimescaleImpl.TT),
+      Time.from(23, 59, big("59." + "9".repeat(300)), TimescaleImpl.UT1),
+      DateTime.gregorianCalendar(2025, 1, 1, 1, 9, big("2.123456789"), TimescaleImpl.TAI),
+      JulianDate.from(big("2451545.0000000001"), TimescaleImpl.TDB)
+    );
+    for(Object item : items) {
+      Object copy = roundTrip(item);
+      assertEquals(item, copy);
+      assertEquals(item.getClass(), copy.getClass());
+    }
+  }
+
+  @Test public void compact() throws Exception {
+    List<DateTime> items = new ArrayList<>();
+    for(int i = 0; i < 1000; ++i) {
+      items.add(DateTime.gregorianCalendar(2025, 1 + i % 12, 1 + i % 28, i % 24, i % 60, big(i % 60 + ".125"), TimescaleImpl.TT));
+    }
+    byte[] bytes = serialize(new ArrayList<>(items));
+    //13 bytes of data per item, and about 9 bytes used by the stream for each object
+    assertTrue("Size " + bytes.length, bytes.length < 1000 * 24);
+    assertEquals(items, deserialize(bytes));
+  }
+
+  @Test public void customTimescale() throws Exception {
+    DateTime dt = DateTime.gregorianCalendar(2025, 1, 1, 1, 9, big("2.25"), new Local());
+    DateTime copy = (DateTime)roundTrip(dt);
+    assertEquals("LOCAL", copy.time().timescale().id());
+    assertEquals(dt.seconds(), copy.seconds());
+  }
+
+  /** A stream written before the serialization proxy, holding the fields of a Date directly. */
+  @Test public void rejectsOldForm() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+      out.writeShort(ObjectStreamConstants.STREAM_VERSION);
+      out.writeByte(ObjectStreamConstants.TC_OBJECT);
+      out.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+      out.writeUTF(Date.class.getName());
+      out.writeLong(1L);
+      out.writeByte(ObjectStreamConstants.SC_SERIALIZABLE);
+      out.writeShort(4);
+      out.writeByte('I'); out.writeUTF("day");
+      out.writeByte('I'); out.writeUTF("month");
+      out.writeByte('J'); out.writeUTF("year");
+      out.writeByte('L'); out.writeUTF("calendar");
+      out.writeByte(ObjectStreamConstants.TC_STRING); out.writeUTF("Lbigtime/when/Calendar;");
+      out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+      out.writeByte(ObjectStreamConstants.TC_NULL); //no serializable superclass
+      //the field values: 2025-02-30 would never pass the factory methods
+      out.writeInt(30);
+      out.writeInt(2);
+      out.writeLong(2025);
+      out.writeByte(ObjectStreamConstants.TC_NULL);
+    }
+    try {
+      deserialize(bytes.toByteArray());
+      fail("Old form was accepted.");
+    }
+    catch(InvalidObjectException ex) {
+      assertEquals("Serialized through SerialForm only.", ex.getMessage());
+    }
+  }
+
+  private static final class Local implements Timescale, Serializable {
+    private static final long serialVersionUID = 1L;
+    @Override public String id() { return "LOCAL"; }
+  }
+
+  private static Object roundTrip(Object item) throws IOException, ClassNotFoundException {
+    return deserialize(serialize(item));
+  }
+
+  private static byte[] serialize(Object item) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(item);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readObject();
+    }
+  }
+}
@@ -9,16 +9,27 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
   BigDecimalTEST.class, //not really a test; more a demo of its behaviour
   BigDecimalHelperTEST.class,
+  BinaryCodecTEST.class,
   CalendarTEST.class,
+  DateRangeTEST.class,
   DateTEST.class,
+  DateTimeColumnTEST.class,
+  DateTimeFormatTEST.class,
+  DateTimeParserTEST.class,
   DateTimeTEST.class,
+  JavaTimeBridgeTEST.class,
   JulianDateConverterTEST.class,
+  MappedTimestampReaderTEST.class,
   OdometerTEST.class,
+  PackedDateTEST.class,
   RoundSecondsTEST.class,
+  SerialFormTEST.class,
   TimescaleImplTEST.class,
   TimescaleTEST.class,
   TimeTEST.class,
-  Ut1HelperTEST.class
+  Ut1HelperTEST.class,
+  WireTimestampsTEST.class,
+  YearStartTableTEST.class
 })
 public final class TestSuite {
   //an empty abyss of non-code
@@ -4,13 +4,25 @@ import static bigtime.util.Consts.*;
 import static bigtime.util.Pad.*;
 import static bigtime.when.BigDecimalHelper.*;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.Objects;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 import bigtime.util.Check;
 
-/** Immutable data-carrier for time information. */
-public final class Time implements Comparable<Time> {
+/** 
+ Immutable data-carrier for time information.
+ 
+ <P>When the seconds have 9 decimal places or fewer, this class also keeps the time as a 
+ <em>long</em> number of nanoseconds since the start of the day. 
+ Comparisons, and the calculation of the fraction of a day, then use <em>long</em> arithmetic. 
+ When the seconds have more than 9 decimal places, the {@link BigDecimal} seconds are used instead.
+ In both cases, the results are the same.
+*/
+public final class Time implements Comparable<Time>, Serializable {
   
   /**
    Factory method.
@@ -19,7 +31,10 @@ public final class Time implements Comparable<Time> {
    @param seconds range [0,60.0). Leap seconds are not supported in this library. 
   */
   public static Time from(int hour, int minute, BigDecimal seconds, Timescale timescale) {
-    return new Time(hour, minute, seconds, timescale);
+    Check.range(hour, 0, HOURS_PER_DAY - 1);
+    Check.range(minute, 0, MINUTES_PER_HOUR - 1); 
+    Check.range(seconds, BigDecimal.ZERO, SECONDS_IN_A_MINUTE);
+    return trusted(hour, minute, seconds, timescale);
   }
   
   /**
@@ -27,12 +42,44 @@ public final class Time implements Comparable<Time> {
    @param fraction of a day [0.0,1.0)
   */
   public static Time from(BigDecimal fraction, Timescale timescale) {
-    return new Time(fraction, timescale);
+    Check.range(fraction, BigDecimal.ZERO, BigDecimal.ONE);
+    return fromFraction(fraction, timescale);
   }
   
-  /** 00:00:00.0 in the given timescale. */
+  /** 
+   As in {@link #from(int, int, BigDecimal, Timescale)}, but with no validation of the hour, minute, and seconds.
+   For values that are known to be valid, because they were calculated by this library. 
+  */
+  static Time trusted(int hour, int minute, BigDecimal seconds, Timescale timescale) {
+    if (minute == 0 && BigDecimal.ZERO.equals(seconds) && timescale instanceof TimescaleImpl) {
+      if (hour == 0) return ZEROS[((TimescaleImpl)timescale).ordinal()];
+      if (hour == 12) return NOONS[((TimescaleImpl)timescale).ordinal()];
+    }
+    return new Time(hour, minute, seconds, timescale);
+  }
+  
+  /** 
+   As in {@link #from(BigDecimal, Timescale)}, but with no validation of the fraction.
+   For values that are known to be valid, because they were calculated by this library. 
+  */
+  static Time trusted(BigDecimal fraction, Timescale timescale) {
+    return fromFraction(fraction, timescale);
+  }
+  
+  /** 
+   00:00:00 in the given timescale. 
+   For the timescales in {@link TimescaleImpl}, a shared instance is returned. 
+  */
   public static Time zero(Timescale timescale) {
-    return new Time(0, 0, BigDecimal.ZERO, timescale);
+    return trusted(0, 0, BigDecimal.ZERO, timescale);
+  }
+  
+  /** 
+   12:00:00 in the given timescale. 
+   For the timescales in {@link TimescaleImpl}, a shared instance is returned. 
+  */
+  public static Time noon(Timescale timescale) {
+    return trusted(12, 0, BigDecimal.ZERO, timescale);
   }
   
   public int hour() { return hour; }
@@ -43,14 +90,73 @@ public final class Time implements Comparable<Time> {
   /** This {@link Time} as a fraction of a full 24 hour day. Return a value in the range [0.0 to 1.0). */
   public BigDecimal fraction() {
     if (fraction == null) {
-      BigDecimal hr = big(hour * SECONDS_PER_HOUR);
-      BigDecimal min = big(minute * SECONDS_PER_MINUTE);
-      BigDecimal totalSeconds = hr.add(min).add(seconds);
-      fraction = divide(totalSeconds, big(SECONDS_PER_DAY));
+      fraction = nanos == NOT_NANOS ? fractionFromSeconds() : fractionFromNanos();
     }
     return fraction;
   }
   
+  /** 
+   As in {@link #fraction()}, but with the result's scale bounded by the given {@link Precision}.
+   The result is not cached. 
+  */
+  BigDecimal fraction(Precision precision) {
+    if (fraction != null && fraction.scale() <= precision.dayScale()) {
+      return fraction;
+    }
+    BigDecimal hr = big(hour * SECONDS_PER_HOUR);
+    BigDecimal min = big(minute * SECONDS_PER_MINUTE);
+    return precision.secondsToDays(hr.add(min).add(seconds));
+  }
+  
+  /** 
+   Factory method, from the number of nanoseconds since the start of the day.
+   @param nanosOfDay range [0, 86_400 * 10<sup>9</sup>)
+   @param scale the number of decimal places for the seconds, range [0,9]. 
+   The nanoseconds must not have any non-zero digits beyond that number of decimal places.
+  */
+  static Time ofNanos(long nanosOfDay, int scale, Timescale timescale) {
+    Check.range(scale, 0, MAX_NANOS_SCALE);
+    if (nanosOfDay < 0 || nanosOfDay >= NANOS_PER_DAY) {
+      throw new IllegalArgumentException(nanosOfDay + " is not in range [0.." + NANOS_PER_DAY + ")");
+    }
+    long unit = powerOfTen(MAX_NANOS_SCALE - scale);
+    if (nanosOfDay % unit != 0) {
+      throw new IllegalArgumentException("Nanos " + nanosOfDay + " have more than " + scale + " decimal places for the seconds.");
+    }
+    int hour = (int)(nanosOfDay / NANOS_PER_HOUR);
+    int minute = (int)((nanosOfDay % NANOS_PER_HOUR) / NANOS_PER_MINUTE);
+    BigDecimal seconds = BigDecimal.valueOf((nanosOfDay % NANOS_PER_MINUTE) / unit, scale);
+    return trusted(hour, minute, seconds, timescale);
+  }
+  
+  /** 
+   The number of nanoseconds since the start of the day. 
+   Returns {@link #NOT_NANOS} if the seconds have more than 9 decimal places. 
+  */
+  long nanosOfDay() {
+    return nanos;
+  }
+  
+  /** Returned by {@link #nanosOfDay()} when the seconds have more than 9 decimal places: {@value}. */
+  static final long NOT_NANOS = -1L;
+  
+  /** The largest number of decimal places for the seconds that can be held as nanoseconds: {@value}. */
+  static final int MAX_NANOS_SCALE = 9;
+  
+  static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+  
+  private static final long serialVersionUID = 1L;
+
+  /** Serialized in a compact binary form. See {@link SerialForm}. */
+  private Object writeReplace() {
+    return new SerialForm(this);
+  }
+
+  /** Instances are always serialized through {@link SerialForm}. */
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized through SerialForm only.");
+  }
+
   /** Intended for logging only. Example: <em>01:09:02.0 TT</em> */
   @Override public String toString() {
     String colon = ":";
@@ -62,29 +168,47 @@ public final class Time implements Comparable<Time> {
     if (this == aThat) return true;
     if (!(aThat instanceof Time)) return false;
     Time that = (Time)aThat;
-    for(int i = 0; i < this.getSigFields().length; ++i){
-      if (!Objects.equals(this.getSigFields()[i], that.getSigFields()[i])){
-        return false;
-      }
+    if (this.nanos != NOT_NANOS && that.nanos != NOT_NANOS) {
+      return 
+        this.nanos == that.nanos && 
+        this.seconds.scale() == that.seconds.scale() && 
+        TimescaleOrder.same(this.timescale, that.timescale)
+      ;
     }
-    return true;
+    return 
+      this.hour == that.hour && 
+      this.minute == that.minute && 
+      this.seconds.equals(that.seconds) && 
+      TimescaleOrder.same(this.timescale, that.timescale)
+    ;
   }  
   
   @Override public int hashCode() {
-    return Objects.hash(getSigFields());
+    int res = TimescaleOrder.hash(timescale);
+    res = 31 * res + hour;
+    res = 31 * res + minute;
+    res = 31 * res + seconds.hashCode();
+    return res;
   }
 
-  /** This implementation considers the {@link Timescale} to be the most significant item. */
+  /** 
+   This implementation considers the {@link Timescale} to be the most significant item.
+   Timescales are ordered by their {@link Timescale#rank()}. 
+  */
   @Override public int compareTo(Time that) {
     if (this == that) return EQUAL;
 
-    int comparison = this.timescale.id().compareTo(that.timescale.id());
+    int comparison = TimescaleOrder.compare(this.timescale, that.timescale);
     if (comparison != EQUAL) return comparison;
     
-    comparison = this.hour.compareTo(that.hour);
+    if (this.nanos != NOT_NANOS && that.nanos != NOT_NANOS) {
+      return Long.compare(this.nanos, that.nanos);
+    }
+    
+    comparison = Integer.compare(this.hour, that.hour);
     if (comparison != EQUAL) return comparison;
 
-    comparison = this.minute.compareTo(that.minute);
+    comparison = Integer.compare(this.minute, that.minute);
     if (comparison != EQUAL) return comparison;
 
     comparison = this.seconds.compareTo(that.seconds);
@@ -93,20 +217,71 @@ public final class Time implements Comparable<Time> {
     return EQUAL;
   }
   
-  private Timescale timescale; 
-  private Integer hour; 
-  private Integer minute; 
-  private BigDecimal seconds;
-  private BigDecimal fraction;
+  private final Timescale timescale; 
+  private final int hour; 
+  private final int minute; 
+  private final BigDecimal seconds;
+  /** Nanoseconds since the start of the day, or NOT_NANOS if the seconds have more than 9 decimal places. */
+  private final long nanos;
+  private BigDecimal fraction; //lazy; a race to set it is harmless, since BigDecimal is immutable
   
   private static final int SECONDS_PER_HOUR = MINUTES_PER_HOUR * SECONDS_PER_MINUTE;
+  private static final long NANOS_PER_HOUR = SECONDS_PER_HOUR * NANOS_PER_SECOND;
+  private static final BigDecimal SECONDS_IN_A_DAY = big(SECONDS_PER_DAY);
+  private static final BigDecimal SECONDS_IN_A_MINUTE = big(SECONDS_PER_MINUTE);
+  /** Shared instances, indexed by the ordinal of a {@link TimescaleImpl}. */
+  private static final Time[] ZEROS = sharedInstances(0);
+  private static final Time[] NOONS = sharedInstances(12);
   
+  /** 86_400 = 2^7 * 3^3 * 5^2. Only the factor of 27 can make a division by 86_400 non-terminating. */
+  private static final long NON_DECIMAL_PART_OF_A_DAY = 27L;
+  
+  /** No validation is done here. */
   private Time(int hour, int minute, BigDecimal seconds, Timescale timescale) {
-    init(hour, minute, seconds, timescale);
+    this.hour = hour;
+    this.minute = minute;
+    this.seconds = seconds;
+    this.timescale = timescale;
+    this.nanos = seconds.scale() <= MAX_NANOS_SCALE ? 
+      hour * NANOS_PER_HOUR + minute * NANOS_PER_MINUTE + seconds.movePointRight(MAX_NANOS_SCALE).longValueExact() : 
+      NOT_NANOS
+    ;
+  }
+  
+  private static Time[] sharedInstances(int hour) {
+    TimescaleImpl[] timescales = TimescaleImpl.values();
+    Time[] res = new Time[timescales.length];
+    for(TimescaleImpl timescale : timescales) {
+      res[timescale.ordinal()] = new Time(hour, 0, BigDecimal.ZERO, timescale);
+    }
+    return res;
+  }
+  
+  /** The general case. */
+  private BigDecimal fractionFromSeconds() {
+    BigDecimal hr = big(hour * SECONDS_PER_HOUR);
+    BigDecimal min = big(minute * SECONDS_PER_MINUTE);
+    BigDecimal totalSeconds = hr.add(min).add(seconds);
+    return divide(totalSeconds, SECONDS_IN_A_DAY);
+  }
+  
+  /**
+   Same result as {@link #fractionFromSeconds()}, including its scale.
+   The total seconds are built directly from the nanos, and it's known in advance whether or not
+   the division terminates. That avoids the exception thrown by {@link BigDecimal#divide(BigDecimal)}
+   for non-terminating results.
+  */
+  private BigDecimal fractionFromNanos() {
+    int scale = Math.max(seconds.scale(), 0); //the scale of hr + min + seconds
+    long unscaled = nanos / powerOfTen(MAX_NANOS_SCALE - scale);
+    BigDecimal totalSeconds = BigDecimal.valueOf(unscaled, scale);
+    if (unscaled % NON_DECIMAL_PART_OF_A_DAY == 0) {
+      return totalSeconds.divide(SECONDS_IN_A_DAY);
+    }
+    return totalSeconds.divide(SECONDS_IN_A_DAY, new MathContext(infiniteCutoffPrecision(), RoundingMode.HALF_EVEN));
   }
   
-  private Time(BigDecimal fraction, Timescale timescale) {
-    Check.range(fraction, 0.0, 1.0);
+  private static Time fromFraction(BigDecimal fraction, Timescale timescale) {
     BigDecimal totalSeconds = fraction.multiply(big(SECONDS_PER_DAY));
     
     BigDecimal[] hourAndRemainder = divideAndRemainder(totalSeconds, big(SECONDS_PER_HOUR));
@@ -118,22 +293,8 @@ public final class Time implements Comparable<Time> {
     
     remainder = minutesAndRemainder[REMAINDER]; //seconds
     
-    init(hours, minutes, remainder, timescale);
-    this.fraction = fraction; //preserve the given value; we don't want to recalculate it later
-  }
-  
-  private void init(int hour, int minute, BigDecimal seconds, Timescale timescale) {
-    Check.range(hour, 0, HOURS_PER_DAY - 1);
-    Check.range(minute, 0, MINUTES_PER_HOUR - 1); 
-    Check.range(seconds, 0.0, Double.valueOf(1.0 * SECONDS_PER_MINUTE));
-    this.hour = hour;
-    this.minute = minute;
-    this.seconds = seconds;
-    this.timescale = timescale;
-  }
-  
-  private Object[] getSigFields() {
-    Object[] res = {timescale.id(), hour, minute, seconds};
+    Time res = new Time(hours, minutes, remainder, timescale);
+    res.fraction = fraction; //preserve the given value; we don't want to recalculate it later
     return res;
   }
 }
@@ -53,6 +53,59 @@ public final class TimeTEST {
     assertEquals(big("0.5208333333333333333333333333333333"), t.fraction()); 
   }
   
+  @Test public void equality() {
+    Time a = Time.from(1, 2, big("3.14"), TimescaleImpl.TAI);
+    Time b = Time.from(1, 2, big("3.14"), TimescaleImpl.TAI);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertEquals(0, a.compareTo(b));
+    
+    assertNotEquals(a, Time.from(1, 2, big("3.14"), TimescaleImpl.TT));
+    assertNotEquals(a, Time.from(1, 2, big("3.140"), TimescaleImpl.TAI)); //as in BigDecimal.equals
+    assertNotEquals(a, Time.from(1, 3, big("3.14"), TimescaleImpl.TAI));
+    assertTrue(a.compareTo(Time.from(1, 2, big("3.15"), TimescaleImpl.TAI)) < 0);
+    assertTrue(a.compareTo(Time.from(0, 59, big("3.15"), TimescaleImpl.TAI)) > 0);
+  }
+  
+  @Test public void nanos() {
+    Time time = Time.from(13, 45, big("7.123456789"), TimescaleImpl.TAI);
+    long expected = ((13 * 60 + 45) * 60 + 7) * 1_000_000_000L + 123_456_789L;
+    assertEquals(expected, time.nanosOfDay());
+    assertEquals(time, Time.ofNanos(expected, 9, TimescaleImpl.TAI));
+    assertEquals(Time.NOT_NANOS, Time.from(13, 45, big("7.1234567891"), TimescaleImpl.TAI).nanosOfDay());
+    
+    Time coarse = Time.ofNanos(expected - 123_456_789L + 500_000_000L, 1, TimescaleImpl.TT);
+    assertEquals(big("7.5"), coarse.seconds());
+    assertThrows(IllegalArgumentException.class, () -> Time.ofNanos(expected, 8, TimescaleImpl.TAI));
+    assertThrows(IllegalArgumentException.class, () -> Time.ofNanos(Time.NANOS_PER_DAY, 0, TimescaleImpl.TAI));
+  }
+  
+  /** The long arithmetic must give exactly the same BigDecimal, including its scale, as the general case. */
+  @Test public void fractionFromNanosMatchesGeneralCase() {
+    String[] seconds = {"0", "0.0", "1", "1.5", "7.123456789", "59.999999999", "27", "0.000000027", "3E+1"};
+    for(String sec : seconds) {
+      for(int hour : new int[] {0, 1, 12, 23}) {
+        Time time = Time.from(hour, 7, big(sec), TimescaleImpl.TT);
+        BigDecimal total = big(hour * 3600 + 7 * 60).add(big(sec));
+        assertEquals(divide(total, big(86400)), time.fraction());
+      }
+    }
+    assertTrue(Time.from(1, 0, big("1.5"), TimescaleImpl.TT).compareTo(Time.from(1, 0, big("1.50000000001"), TimescaleImpl.TT)) < 0);
+    assertEquals(0, Time.from(1, 0, big("1.5"), TimescaleImpl.TT).compareTo(Time.from(1, 0, big("1.50"), TimescaleImpl.TT)));
+    assertNotEquals(Time.from(1, 0, big("1.5"), TimescaleImpl.TT), Time.from(1, 0, big("1.50"), TimescaleImpl.TT));
+  }
+  
+  @Test public void sharedInstances() {
+    for(TimescaleImpl timescale : TimescaleImpl.values()) {
+      assertSame(Time.zero(timescale), Time.zero(timescale));
+      assertSame(Time.zero(timescale), Time.from(0, 0, BigDecimal.ZERO, timescale));
+      assertSame(Time.noon(timescale), Time.from(12, 0, BigDecimal.ZERO, timescale));
+      assertEquals(12, Time.noon(timescale).hour());
+    }
+    //a different scale for the seconds gives a different object, which isn't equal
+    assertNotEquals(Time.zero(TimescaleImpl.TT), Time.from(0, 0, big("0.0"), TimescaleImpl.TT));
+  }
+  
   @Test public void fractionFails() {
     fractionFails(BigDecimal.ONE.negate());
     fractionFails(BigDecimal.ONE);
@@ -56,6 +56,22 @@ public interface Timescale {
   */
   default String id() { return this.toString(); }
 
+  /**
+   A cheap and stable number used to order {@link Timescale}s, and to test them for equality.
+   Comparing ranks is much faster than comparing the {@link #id()} Strings.
+   
+   <P>Each of the {@link TimescaleImpl} timescales has a distinct rank, corresponding to its order of declaration.
+   All other implementations share the rank {@link #CUSTOM_RANK} by default, and they are distinguished 
+   from each other using their {@link #id()}.
+   An implementation that overrides this method should return a number that's distinct from the 
+   ranks of all other timescales. 
+   @return {@link #CUSTOM_RANK} by default.
+  */
+  default int rank() { return CUSTOM_RANK; }
+  
+  /** The default value of {@link #rank()}: {@value}. This places custom timescales after the ones in {@link TimescaleImpl}. */
+  static final int CUSTOM_RANK = Integer.MAX_VALUE;
+
   /** 
    Convert a {@link DateTime} from its (implicit) {@link Timescale} to some other target {@link Timescale}.
    The caller will often want to do a rounding operation on the result, to reflect a desired precision, 
@@ -72,7 +88,7 @@ public interface Timescale {
     if (toTimescale == fromWhen.time().timescale()) {
       return Optional.of(fromWhen); //early exit; no conversion is possible
     }
-    BigDecimal jd = JulianDateConverter.using(fromWhen.date().calendar()).toJulianDate(fromWhen).jd();
+    BigDecimal jd = fromWhen.toJulianDate().jd();
 
     //the calc is simple since BigDecimal handles any number of decimal places
     //any 'rollover' effects into another minute-hour-day-year are already handled by other classes
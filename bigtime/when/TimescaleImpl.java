@@ -201,7 +201,7 @@ public enum TimescaleImpl implements Timescale {
       //TDB - TT = 0.001658s * sin(g) + 0.000014s * sin(2g)
       //g = 357.53 + 0.9856003 * (JD - 2451545.0)
       //50 microsecond accuracy in 1980-2100 (SOFA Cookbook) - 0.05 msec
-      JulianDate jd = JulianDateConverter.using(when.date().calendar()).toJulianDate(when);
+      JulianDate jd = when.toJulianDate();
       BigDecimal diff = jd.jd().subtract(JulianDate.J2000);
       double g = Math.toRadians(357.53 + 0.985_6003 * (diff.doubleValue()));
       BigDecimal tdbMinusTT = big(0.001_658 * Math.sin(g) + 0.000_014 * Math.sin(2*g)); //seconds
@@ -209,6 +209,11 @@ public enum TimescaleImpl implements Timescale {
     }
   };
   
+  /** The order of declaration in this class. */
+  @Override public int rank() {
+    return ordinal();
+  }
+  
   /** Used to set a System property, and override a default value for UTC - TAI: {@value}. */
   public static final String UTC_SYS_PROPERTY = "UTC-minus-TAI";
   
@@ -0,0 +1,32 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+/**
+ Ordering, equality, and hash codes for {@link Timescale}s, for use by the classes that carry a {@link Timescale}.
+ 
+ <P>Two timescales are equal if they are the same object, or if they have the same {@link Timescale#rank()} and the same {@link Timescale#id()}.
+ For the timescales in {@link TimescaleImpl}, the check for identity or rank is all that's needed. 
+ The {@link Timescale#id()} is used only to break a tie between two custom implementations.  
+*/
+final class TimescaleOrder {
+
+  /** Order by rank, then by id. */
+  static int compare(Timescale a, Timescale b) {
+    if (a == b) return EQUAL;
+    int res = Integer.compare(a.rank(), b.rank());
+    if (res != EQUAL) return res;
+    return a.rank() == Timescale.CUSTOM_RANK ? a.id().compareTo(b.id()) : EQUAL; 
+  }
+  
+  /** Consistent with {@link #compare(Timescale, Timescale)}. */
+  static boolean same(Timescale a, Timescale b) {
+    return compare(a, b) == EQUAL;
+  }
+  
+  /** Consistent with {@link #same(Timescale, Timescale)}. */
+  static int hash(Timescale timescale) {
+    int rank = timescale.rank();
+    return rank == Timescale.CUSTOM_RANK ? timescale.id().hashCode() : rank;
+  }
+}
@@ -45,6 +45,35 @@ public final class TimescaleTEST {
     //this is deemed acceptable
   }
   
+  @Test public void ordering() {
+    Time tai = Time.zero(TAI);
+    Time tt = Time.zero(TT);
+    Time custom = Time.zero(new Custom("AAA")); //sorts after the built-in timescales, despite its id
+    Time custom2 = Time.zero(new Custom("BBB"));
+    assertTrue(tai.compareTo(tt) < 0);
+    assertTrue(tt.compareTo(custom) < 0);
+    assertTrue(custom.compareTo(custom2) < 0);
+    assertTrue(custom2.compareTo(custom) > 0);
+    
+    //custom timescales with the same id are equal
+    Time customAgain = Time.zero(new Custom("AAA"));
+    assertEquals(custom, customAgain);
+    assertEquals(custom.hashCode(), customAgain.hashCode());
+    assertEquals(0, custom.compareTo(customAgain));
+    
+    JulianDate a = JulianDate.from(big(1), new Custom("AAA"));
+    JulianDate b = JulianDate.from(big(1), new Custom("AAA"));
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertTrue(JulianDate.from(big(2), TDB).compareTo(a) < 0);
+  }
+  
+  private static final class Custom implements Timescale {
+    Custom(String id){ this.id = id; }
+    @Override public String id() { return id; }
+    private final String id;
+  }
+  
   private void convert(
     int year, int month, int day, int hour, int minute, BigDecimal seconds, Calendar calendar, Timescale from, 
     Timescale toTimescale,
@@ -6,7 +6,6 @@ import static bigtime.when.Calendar.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -38,9 +37,9 @@ final class Ut1Helper {
   static final int NUM_DECIMALS = 7;
   
   /** 
-   Read in source IERS data file. 
+   Read in source IERS data file, in a single pass. 
    WARNING: The file is large.
-   Its contents are in memory until this object is garbage-collected.
+   The table built from its contents is in memory until this object is garbage-collected.
    
    <P>{@link Timescale} has a field of this class, which is initialized 
    only when a conversion to UT1 is first needed. 
@@ -172,24 +171,44 @@ final class Ut1Helper {
   */
   private void readInSourceData() {
     DataFileReader reader = new DataFileReader();
-    List<String> lines = reader.readFileUTF8(this.getClass(), "UT1-TAI.txt");
-    String first = "", last = "";
-    for(String line : lines) {
-      if (line.trim().startsWith(DataFileReader.COMMENT)) continue;
-      if (!Check.textHasContent(line)) continue;
+    String[] firstAndLast = new String[2];
+    //a single pass, with no list of lines held in memory
+    reader.forEachLine(this.getClass(), "UT1-TAI.txt", DataFileReader.UTF8, line -> {
+      int start = skipWhitespace(line, 0);
+      if (start == line.length()) return;
+      if (line.charAt(start) == DataFileReader.COMMENT.charAt(0)) return;
       
-      String date = line.substring(0, 10);
-      String[] parts = line.split("\\s+");
-      String seconds = parts[3];
-      table.put(date, seconds);
+      String date = line.subSequence(0, 10).toString();
+      table.put(date, field(line, 3));
       
-      if (!Check.textHasContent(first)) {
-        first = date;
+      if (firstAndLast[0] == null) {
+        firstAndLast[0] = date;
       }
-      last = date;
+      firstAndLast[1] = date;
+    });
+    this.earliestDate = buildDate(firstAndLast[0]);
+    this.mostRecentDate = buildDate(firstAndLast[1]);
+  }
+  
+  /** Return the field at the given 0-based index, where fields are separated by whitespace. */
+  private String field(CharSequence line, int index) {
+    int start = skipWhitespace(line, 0);
+    for(int i = 0; i < index; ++i) {
+      start = skipWhitespace(line, skipField(line, start));
     }
-    this.earliestDate = buildDate(first);
-    this.mostRecentDate = buildDate(last);
+    return line.subSequence(start, skipField(line, start)).toString();
+  }
+  
+  private int skipWhitespace(CharSequence line, int idx) {
+    int res = idx;
+    while (res < line.length() && Character.isWhitespace(line.charAt(res))) ++res;
+    return res;
+  }
+  
+  private int skipField(CharSequence line, int idx) {
+    int res = idx;
+    while (res < line.length() && !Character.isWhitespace(line.charAt(res))) ++res;
+    return res;
   }
 
   /**  '1980  9 30' */
@@ -0,0 +1,278 @@
+package bigtime.when;
+
+import static bigtime.util.Consts.*;
+
+import java.nio.ByteBuffer;
+
+/**
+ Conversions between {@link DateTime} and the timestamps used by GPS receivers, NTP, and PTP.
+
+ <ul>
+  <li><b>GPS</b>: a week number and the time of week, counted from 1980-01-06 00:00:00 {@link TimescaleImpl#GPS}.
+  The week number here is the full week number, not the 10-bit or 13-bit value broadcast by the satellites.
+  <li><b>NTP</b>: a 64-bit timestamp (RFC 5905), holding 32 bits of seconds and 32 bits of fraction of a second,
+  counted from 1900-01-01 00:00:00 {@link TimescaleImpl#UTC}.
+  As in RFC 4330, a value whose most significant bit is 0 is taken to be in the era starting in 2036,
+  so the supported range is from 1968-01-20 to 2104-02-26.
+  <li><b>PTP</b>: an IEEE 1588 timestamp, holding 48 bits of seconds and 32 bits of nanoseconds,
+  counted from 1970-01-01 00:00:00 {@link TimescaleImpl#TAI}. On the wire, it takes 10 bytes, in big-endian order.
+ </ul>
+
+ <P>Decoding returns a {@link DateTime} in the timescale of the format, in the Gregorian calendar, with 9 decimal places for the seconds.
+ Encoding accepts a {@link DateTime} in any timescale, and converts it first.
+ Between {@link TimescaleImpl#TAI}, {@link TimescaleImpl#TT}, {@link TimescaleImpl#GPS}, and {@link TimescaleImpl#UTC}, that conversion
+ uses only <em>long</em> arithmetic on nanoseconds.
+ Seconds having more than 9 decimal places are rounded using {@link java.math.RoundingMode#HALF_EVEN}.
+ The fraction of an NTP timestamp is rounded to the nearest nanosecond, in both directions.
+
+ <P>The bulk methods work with a {@link DateTimeColumn}, without creating any {@link DateTime} objects.
+*/
+public final class WireTimestamps {
+
+  /** The number of nanoseconds in a week: {@value}. */
+  public static final long NANOS_PER_WEEK = 7 * Time.NANOS_PER_DAY;
+
+  /**
+   The GPS date-time for the given week number and time of week.
+   @param week 0 or more
+   @param nanosOfWeek range [0, {@value #NANOS_PER_WEEK})
+  */
+  public static DateTime fromGps(int week, long nanosOfWeek) {
+    checkGps(week, nanosOfWeek);
+    return JavaTimeBridge.fromNanos(GPS_EPOCH_DAY_NUMBER + 7L * week, nanosOfWeek, TimescaleImpl.GPS, TimescaleImpl.GPS);
+  }
+
+  /**
+   The GPS week number of the given date-time.
+   @throws IllegalArgumentException if the date-time is before the GPS epoch.
+  */
+  public static int gpsWeek(DateTime dateTime) {
+    return Math.toIntExact(gpsNanos(dateTime) / NANOS_PER_WEEK);
+  }
+
+  /**
+   The GPS time of week of the given date-time, in nanoseconds.
+   @throws IllegalArgumentException if the date-time is before the GPS epoch.
+  */
+  public static long gpsNanosOfWeek(DateTime dateTime) {
+    return gpsNanos(dateTime) % NANOS_PER_WEEK;
+  }
+
+  /** Bulk version of {@link #fromGps(int, long)}. The result is in {@link TimescaleImpl#GPS}, with a scale of 9. */
+  public static DateTimeColumn fromGps(int[] weeks, long[] nanosOfWeek) {
+    checkLengths(weeks.length, nanosOfWeek.length);
+    long[] dayNumbers = new long[weeks.length];
+    long[] timesOfDay = new long[weeks.length];
+    for(int idx = 0; idx < weeks.length; ++idx) {
+      checkGps(weeks[idx], nanosOfWeek[idx]);
+      dayNumbers[idx] = GPS_EPOCH_DAY_NUMBER + 7L * weeks[idx] + nanosOfWeek[idx] / Time.NANOS_PER_DAY;
+      timesOfDay[idx] = nanosOfWeek[idx] % Time.NANOS_PER_DAY;
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, Time.MAX_NANOS_SCALE, TimescaleImpl.GPS, Calendar.GREGORIAN);
+  }
+
+  /**
+   Bulk version of {@link #gpsWeek(DateTime)} and {@link #gpsNanosOfWeek(DateTime)}.
+   @param weeks receives the week numbers; same length as the column
+   @param nanosOfWeek receives the times of week; same length as the column
+   @throws IllegalArgumentException if a date-time is before the GPS epoch.
+  */
+  public static void toGps(DateTimeColumn column, int[] weeks, long[] nanosOfWeek) {
+    checkLengths(column.size(), weeks.length);
+    checkLengths(column.size(), nanosOfWeek.length);
+    long[] nanos = nanosSince(column.convertTo(TimescaleImpl.GPS), GPS_EPOCH_DAY_NUMBER);
+    for(int idx = 0; idx < nanos.length; ++idx) {
+      checkGpsEpoch(nanos[idx]);
+      weeks[idx] = Math.toIntExact(nanos[idx] / NANOS_PER_WEEK);
+      nanosOfWeek[idx] = nanos[idx] % NANOS_PER_WEEK;
+    }
+  }
+
+  /** The UTC date-time for the given NTP timestamp. */
+  public static DateTime fromNtp(long timestamp) {
+    return JavaTimeBridge.fromNanos(NTP_EPOCH_DAY_NUMBER, ntpToNanos(timestamp), TimescaleImpl.UTC, TimescaleImpl.UTC);
+  }
+
+  /**
+   The NTP timestamp for the given date-time.
+   @throws IllegalArgumentException if the date-time is outside the range of NTP timestamps.
+  */
+  public static long toNtp(DateTime dateTime) {
+    long[] utc = JavaTimeBridge.toNanos(dateTime, TimescaleImpl.UTC);
+    return nanosToNtp(utc[0] - NTP_EPOCH_DAY_NUMBER, utc[1]);
+  }
+
+  /** Bulk version of {@link #fromNtp(long)}. The result is in {@link TimescaleImpl#UTC}, with a scale of 9. */
+  public static DateTimeColumn fromNtp(long[] timestamps) {
+    long[] dayNumbers = new long[timestamps.length];
+    long[] timesOfDay = new long[timestamps.length];
+    for(int idx = 0; idx < timestamps.length; ++idx) {
+      long nanos = ntpToNanos(timestamps[idx]); //never negative
+      dayNumbers[idx] = NTP_EPOCH_DAY_NUMBER + nanos / Time.NANOS_PER_DAY;
+      timesOfDay[idx] = nanos % Time.NANOS_PER_DAY;
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, Time.MAX_NANOS_SCALE, TimescaleImpl.UTC, Calendar.GREGORIAN);
+  }
+
+  /** Bulk version of {@link #toNtp(DateTime)}. */
+  public static long[] toNtp(DateTimeColumn column) {
+    DateTimeColumn utc = column.convertTo(TimescaleImpl.UTC);
+    long[] res = new long[utc.size()];
+    for(int idx = 0; idx < res.length; ++idx) {
+      res[idx] = nanosToNtp(utc.dayNumber(idx) - NTP_EPOCH_DAY_NUMBER, utc.nanosOfDay(idx));
+    }
+    return res;
+  }
+
+  /**
+   The TAI date-time for the given PTP timestamp.
+   @param seconds range [0, 2<sup>48</sup>)
+   @param nanos range [0, 10<sup>9</sup>)
+  */
+  public static DateTime fromPtp(long seconds, int nanos) {
+    checkPtp(seconds, nanos);
+    return JavaTimeBridge.fromNanos(PTP_EPOCH_DAY_NUMBER + seconds / SECONDS_PER_DAY, (seconds % SECONDS_PER_DAY) * NANOS_PER_SECOND + nanos, TimescaleImpl.TAI, TimescaleImpl.TAI);
+  }
+
+  /** Read a PTP timestamp of 10 bytes from the given buffer, at its current position. */
+  public static DateTime decodePtp(ByteBuffer source) {
+    long seconds = (source.getShort() & 0xFFFFL) << 32 | (source.getInt() & 0xFFFF_FFFFL);
+    int nanos = source.getInt(); //an unsigned value of 2^31 or more is negative here, and rejected either way
+    return fromPtp(seconds, nanos);
+  }
+
+  /**
+   Write the PTP timestamp for the given date-time, as 10 bytes into the given buffer, at its current position.
+   @throws IllegalArgumentException if the date-time is before the PTP epoch.
+  */
+  public static void encodePtp(DateTime dateTime, ByteBuffer target) {
+    long[] tai = JavaTimeBridge.toNanos(dateTime, TimescaleImpl.TAI);
+    long days = tai[0] - PTP_EPOCH_DAY_NUMBER;
+    if (days < 0) {
+      throw new IllegalArgumentException("Before the PTP epoch: " + dateTime);
+    }
+    long seconds = Math.addExact(Math.multiplyExact(days, SECONDS_PER_DAY), tai[1] / NANOS_PER_SECOND);
+    checkPtp(seconds, 0);
+    target.putShort((short)(seconds >>> 32));
+    target.putInt((int)seconds);
+    target.putInt((int)(tai[1] % NANOS_PER_SECOND));
+  }
+
+  /**
+   Bulk version of {@link #fromPtp(long, int)}. The result is in {@link TimescaleImpl#TAI}, with a scale of 9.
+   @param nanos same length as <em>seconds</em>
+  */
+  public static DateTimeColumn fromPtp(long[] seconds, int[] nanos) {
+    checkLengths(seconds.length, nanos.length);
+    long[] dayNumbers = new long[seconds.length];
+    long[] timesOfDay = new long[seconds.length];
+    for(int idx = 0; idx < seconds.length; ++idx) {
+      checkPtp(seconds[idx], nanos[idx]);
+      dayNumbers[idx] = PTP_EPOCH_DAY_NUMBER + seconds[idx] / SECONDS_PER_DAY;
+      timesOfDay[idx] = (seconds[idx] % SECONDS_PER_DAY) * NANOS_PER_SECOND + nanos[idx];
+    }
+    return new DateTimeColumn(dayNumbers, timesOfDay, Time.MAX_NANOS_SCALE, TimescaleImpl.TAI, Calendar.GREGORIAN);
+  }
+
+  /**
+   Bulk version of {@link #encodePtp(DateTime, ByteBuffer)}, into arrays of seconds and nanoseconds.
+   @param seconds receives the seconds; same length as the column
+   @param nanos receives the nanoseconds; same length as the column
+  */
+  public static void toPtp(DateTimeColumn column, long[] seconds, int[] nanos) {
+    checkLengths(column.size(), seconds.length);
+    checkLengths(column.size(), nanos.length);
+    //the whole span in nanoseconds doesn't always fit in a long, so seconds and nanos are kept apart
+    DateTimeColumn tai = column.convertTo(TimescaleImpl.TAI);
+    for(int idx = 0; idx < seconds.length; ++idx) {
+      long nanosOfDay = tai.nanosOfDay(idx);
+      seconds[idx] = (tai.dayNumber(idx) - PTP_EPOCH_DAY_NUMBER) * SECONDS_PER_DAY + nanosOfDay / NANOS_PER_SECOND;
+      nanos[idx] = (int)(nanosOfDay % NANOS_PER_SECOND);
+      checkPtp(seconds[idx], nanos[idx]);
+    }
+  }
+
+  /** The day number of 1980-01-06: {@value}. */
+  static final long GPS_EPOCH_DAY_NUMBER = 2_444_245L;
+  /** The day number of 1900-01-01: {@value}. */
+  static final long NTP_EPOCH_DAY_NUMBER = 2_415_021L;
+  /** The day number of 1970-01-01: {@value}. */
+  static final long PTP_EPOCH_DAY_NUMBER = JavaTimeBridge.UNIX_EPOCH_DAY_NUMBER;
+
+  private static final long TWO_TO_THE_32 = 1L << 32;
+  /** The range of seconds since the NTP epoch, over eras 0 and 1. */
+  private static final long MIN_NTP_SECONDS = TWO_TO_THE_32 >>> 1;
+  private static final long MAX_NTP_SECONDS = TWO_TO_THE_32 + MIN_NTP_SECONDS - 1;
+  private static final long MAX_PTP_SECONDS = (1L << 48) - 1;
+
+  private WireTimestamps() {
+    //prevent construction
+  }
+
+  private static long gpsNanos(DateTime dateTime) {
+    long[] gps = JavaTimeBridge.toNanos(dateTime, TimescaleImpl.GPS);
+    long res = Math.addExact(Math.multiplyExact(gps[0] - GPS_EPOCH_DAY_NUMBER, Time.NANOS_PER_DAY), gps[1]);
+    checkGpsEpoch(res);
+    return res;
+  }
+
+  /** The nanoseconds from the start of the given day to each item. */
+  private static long[] nanosSince(DateTimeColumn column, long epochDayNumber) {
+    long[] res = new long[column.size()];
+    for(int idx = 0; idx < res.length; ++idx) {
+      res[idx] = Math.addExact(Math.multiplyExact(column.dayNumber(idx) - epochDayNumber, Time.NANOS_PER_DAY), column.nanosOfDay(idx));
+    }
+    return res;
+  }
+
+  /** The nanoseconds since the NTP epoch, never negative. The fraction is rounded half-up to a nanosecond. */
+  private static long ntpToNanos(long timestamp) {
+    long seconds = timestamp >>> 32;
+    if (seconds < MIN_NTP_SECONDS) {
+      seconds += TWO_TO_THE_32; //era 1, starting in 2036
+    }
+    long fraction = timestamp & 0xFFFF_FFFFL;
+    //fits: seconds < 2^32 + 2^31, and (2^32 + 2^31) * 10^9 < 6.5 * 10^18 < 2^63
+    return seconds * NANOS_PER_SECOND + ((fraction * NANOS_PER_SECOND + (1L << 31)) >>> 32);
+  }
+
+  /** The nanos of the day are in the range [0, {@link Time#NANOS_PER_DAY}). */
+  private static long nanosToNtp(long days, long nanosOfDay) {
+    //check the days first, so that the nanos fit in a long
+    if (days < MIN_NTP_SECONDS / SECONDS_PER_DAY || days > MAX_NTP_SECONDS / SECONDS_PER_DAY) {
+      throw new IllegalArgumentException("Outside the range of NTP timestamps: " + days + " days since 1900-01-01 UTC.");
+    }
+    long nanos = days * Time.NANOS_PER_DAY + nanosOfDay;
+    long seconds = nanos / NANOS_PER_SECOND;
+    if (seconds < MIN_NTP_SECONDS || seconds > MAX_NTP_SECONDS) {
+      throw new IllegalArgumentException("Outside the range of NTP timestamps: " + seconds + " seconds since 1900-01-01 00:00:00 UTC.");
+    }
+    //rounded half-up; never reaches 2^32, since (10^9 - 1) * 2^32 + 10^9 / 2 < 10^9 * 2^32
+    long fraction = ((nanos % NANOS_PER_SECOND << 32) + NANOS_PER_SECOND / 2) / NANOS_PER_SECOND;
+    return (seconds & 0xFFFF_FFFFL) << 32 | fraction;
+  }
+
+  private static void checkGps(int week, long nanosOfWeek) {
+    if (week < 0 || nanosOfWeek < 0 || nanosOfWeek >= NANOS_PER_WEEK) {
+      throw new IllegalArgumentException("GPS week " + week + " and time of week " + nanosOfWeek + " are not in range.");
+    }
+  }
+
+  private static void checkGpsEpoch(long gpsNanos) {
+    if (gpsNanos < 0) {
+      throw new IllegalArgumentException("Before the GPS epoch: " + gpsNanos + " nanoseconds from 1980-01-06 00:00:00 GPS.");
+    }
+  }
+
+  private static void checkPtp(long seconds, long nanos) {
+    if (seconds < 0 || seconds > MAX_PTP_SECONDS || nanos < 0 || nanos >= NANOS_PER_SECOND) {
+      throw new IllegalArgumentException("PTP seconds " + seconds + " and nanos " + nanos + " are not in range.");
+    }
+  }
+
+  private static void checkLengths(int expected, int actual) {
+    if (expected != actual) {
+      throw new IllegalArgumentException("Arrays must have the same length: " + expected + ", " + actual);
+    }
+  }
+}
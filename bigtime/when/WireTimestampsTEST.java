@@ -0,0 +1,112 @@
+package bigtime.when;
+
+import static bigtime.when.BigDecimalHelper.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+/** Unit tests.*/
+public final class WireTimestampsTEST {
+
+  @Test public void epochs() {
+    assertEquals(DayNumber.of(Date.gregorian(1980, 1, 6)), WireTimestamps.GPS_EPOCH_DAY_NUMBER);
+    assertEquals(DayNumber.of(Date.gregorian(1900, 1, 1)), WireTimestamps.NTP_EPOCH_DAY_NUMBER);
+    assertEquals(DayNumber.of(Date.gregorian(1970, 1, 1)), WireTimestamps.PTP_EPOCH_DAY_NUMBER);
+  }
+
+  @Test public void gps() {
+    //2025-06-29 is the start of GPS week 2373
+    long nanosOfWeek = (36 * 3600 + 5) * 1_000_000_000L + 250_000_000L;
+    DateTime gps = WireTimestamps.fromGps(2373, nanosOfWeek);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 0, big("5.250000000"), TimescaleImpl.GPS), gps);
+    assertEquals(2373, WireTimestamps.gpsWeek(gps));
+    assertEquals(nanosOfWeek, WireTimestamps.gpsNanosOfWeek(gps));
+    //TAI is 19 s ahead of GPS
+    DateTime tai = DateTime.gregorianCalendar(2025, 6, 29, 0, 0, big("18.5"), TimescaleImpl.TAI);
+    assertEquals(2372, WireTimestamps.gpsWeek(tai));
+    assertEquals(WireTimestamps.NANOS_PER_WEEK - 500_000_000L, WireTimestamps.gpsNanosOfWeek(tai));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.fromGps(-1, 0));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.fromGps(0, WireTimestamps.NANOS_PER_WEEK));
+    DateTime beforeEpoch = DateTime.gregorianCalendar(1980, 1, 5, 23, 59, big("59.999999999"), TimescaleImpl.GPS);
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.gpsWeek(beforeEpoch));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.gpsNanosOfWeek(beforeEpoch));
+    assertEquals(0, WireTimestamps.gpsWeek(DateTime.gregorianCalendar(1980, 1, 6, 0, 0, big("0"), TimescaleImpl.GPS)));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.toGps(DateTimeColumn.of(List.of(beforeEpoch), 9, TimescaleImpl.GPS, Calendar.GREGORIAN), new int[1], new long[1]));
+
+    int[] weeks = {0, 2373, 2373};
+    long[] tows = {0L, nanosOfWeek, WireTimestamps.NANOS_PER_WEEK - 1};
+    DateTimeColumn column = WireTimestamps.fromGps(weeks, tows);
+    for(int idx = 0; idx < weeks.length; ++idx) {
+      assertEquals(WireTimestamps.fromGps(weeks[idx], tows[idx]), column.get(idx));
+    }
+    int[] weeksBack = new int[3];
+    long[] towsBack = new long[3];
+    WireTimestamps.toGps(column.convertTo(TimescaleImpl.TAI), weeksBack, towsBack);
+    assertArrayEquals(weeks, weeksBack);
+    assertArrayEquals(tows, towsBack);
+  }
+
+  @Test public void ntp() {
+    long unixEpoch = 2_208_988_800L << 32;
+    assertEquals(DateTime.gregorianCalendar(1970, 1, 1, 0, 0, big("0.000000000"), TimescaleImpl.UTC), WireTimestamps.fromNtp(unixEpoch));
+    long timestamp = (2_208_988_800L + 1_751_284_800L) << 32 | 0x8000_0000L; //2025-06-30T12:00:00.5Z
+    DateTime utc = WireTimestamps.fromNtp(timestamp);
+    assertEquals(DateTime.gregorianCalendar(2025, 6, 30, 12, 0, big("0.500000000"), TimescaleImpl.UTC), utc);
+    assertEquals(timestamp, WireTimestamps.toNtp(utc));
+    assertEquals(timestamp, WireTimestamps.toNtp(utc.convertTo(TimescaleImpl.TAI).get()));
+    //era 1
+    DateTime era1 = DateTime.gregorianCalendar(2036, 2, 7, 6, 28, big("17"), TimescaleImpl.UTC);
+    assertEquals(1L << 32, WireTimestamps.toNtp(era1));
+    assertEquals(era1.time().seconds(), WireTimestamps.fromNtp(1L << 32).seconds().stripTrailingZeros());
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.toNtp(DateTime.gregorianCalendar(1950, 1, 1, 0, 0, big("0"), TimescaleImpl.UTC)));
+    //far outside the range, where the nanoseconds since 1900 don't fit in a long
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.toNtp(DateTime.gregorianCalendar(2500, 1, 1, 0, 0, big("0"), TimescaleImpl.UTC)));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.toNtp(DateTime.gregorianCalendar(1500, 1, 1, 0, 0, big("0"), TimescaleImpl.UTC)));
+    //the last second of era 1 in range
+    long last = 0x7FFF_FFFFL << 32;
+    assertEquals(DateTime.gregorianCalendar(2104, 2, 26, 9, 42, big("23.000000000"), TimescaleImpl.UTC), WireTimestamps.fromNtp(last));
+    assertEquals(last, WireTimestamps.toNtp(WireTimestamps.fromNtp(last)));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.toNtp(DateTime.gregorianCalendar(2104, 2, 26, 9, 42, big("24"), TimescaleImpl.UTC)));
+    //a fraction of 1 in 2^32 is about 0.23 nanoseconds
+    assertEquals(big("0.000000000"), WireTimestamps.fromNtp(unixEpoch | 1).seconds());
+    assertEquals(big("0.000000001"), WireTimestamps.fromNtp(unixEpoch | 4).seconds());
+
+    long[] timestamps = {unixEpoch, timestamp, 1L << 32};
+    DateTimeColumn column = WireTimestamps.fromNtp(timestamps);
+    for(int idx = 0; idx < timestamps.length; ++idx) {
+      assertEquals(WireTimestamps.fromNtp(timestamps[idx]), column.get(idx));
+    }
+    assertArrayEquals(timestamps, WireTimestamps.toNtp(column));
+  }
+
+  @Test public void ptp() {
+    DateTime tai = DateTime.gregorianCalendar(2025, 6, 30, 12, 0, big("37.123456789"), TimescaleImpl.TAI);
+    assertEquals(tai, WireTimestamps.fromPtp(1_751_284_837L, 123_456_789));
+    ByteBuffer buffer = ByteBuffer.allocate(10);
+    WireTimestamps.encodePtp(tai.convertTo(TimescaleImpl.UTC).get(), buffer);
+    assertFalse(buffer.hasRemaining());
+    buffer.flip();
+    assertEquals(0, buffer.getShort(0));
+    assertEquals(1_751_284_837, buffer.getInt(2));
+    assertEquals(123_456_789, buffer.getInt(6));
+    assertEquals(tai, WireTimestamps.decodePtp(buffer));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.fromPtp(1L << 48, 0));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.fromPtp(0, 1_000_000_000));
+    assertThrows(IllegalArgumentException.class, () -> WireTimestamps.decodePtp(ByteBuffer.wrap(new byte[] {0, 0, 0, 0, 0, 1, -1, -1, -1, -1})));
+
+    long[] seconds = {0L, 1_751_284_837L, (1L << 40) + 5};
+    int[] nanos = {0, 123_456_789, 999_999_999};
+    DateTimeColumn column = WireTimestamps.fromPtp(seconds, nanos);
+    for(int idx = 0; idx < seconds.length; ++idx) {
+      assertEquals(WireTimestamps.fromPtp(seconds[idx], nanos[idx]), column.get(idx));
+    }
+    long[] secondsBack = new long[3];
+    int[] nanosBack = new int[3];
+    WireTimestamps.toPtp(column, secondsBack, nanosBack);
+    assertArrayEquals(seconds, secondsBack);
+    assertArrayEquals(nanos, nanosBack);
+  }
+}
@@ -0,0 +1,151 @@
+package bigtime.when;
+
+import static bigtime.when.Calendar.*;
+
+import java.util.Arrays;
+
+import bigtime.util.Check;
+
+/**
+ The number of days from January 1.0 of the year 0 to January 1.0 of a given year, in a given {@link Calendar}.
+ This is the integer part of the calculation of a Julian date.
+
+ <P>Most dates used in practice fall in a fairly small range of years.
+ For a window of years around the present day, the results are precomputed and placed in a table.
+ Inside that window, finding the start of a year is a simple index into the table, and
+ finding the year that contains a given day is a small binary search.
+ Outside that window, the general algorithm is used.
+
+ <P>The window of years is [1600, 2600] by default.
+ It can be changed by setting System properties named <em>year-start-table-min</em> and <em>year-start-table-max</em>,
+ to integer values. Those properties are read only once, when this class is loaded.
+ If the max is less than the min, then the table is empty, and the general algorithm is always used.
+*/
+final class YearStartTable {
+
+  /**
+   Return the number of days from January 1.0 of the year 0 to January 1.0 of the given year.
+   Negative for years before the year 0.
+  */
+  static long daysBefore(long year, Calendar calendar) {
+    if (MIN_YEAR <= year && year <= MAX_YEAR) {
+      return table(calendar)[(int)(year - MIN_YEAR)];
+    }
+    return daysBeforeGeneral(year, calendar);
+  }
+
+  /**
+   Return the year that contains the given day.
+   @param days the number of whole days since January 1.0 of the year 0. Negative for days before that.
+  */
+  static long yearContaining(long days, Calendar calendar) {
+    long[] table = table(calendar);
+    //the last entry is the start of the year after the end of the window
+    if (table[0] <= days && days < table[table.length - 1]) {
+      int idx = Arrays.binarySearch(table, days);
+      if (idx < 0) {
+        idx = -idx - 2; //the entry that precedes the insertion point
+      }
+      return MIN_YEAR + idx;
+    }
+    return yearContainingGeneral(days, calendar);
+  }
+
+  /** {@value} */
+  static final String MIN_YEAR_SYS_PROPERTY = "year-start-table-min";
+
+  /** {@value} */
+  static final String MAX_YEAR_SYS_PROPERTY = "year-start-table-max";
+
+  /** The first year in the table. */
+  static final long MIN_YEAR = yearFromSysProperty(MIN_YEAR_SYS_PROPERTY, 1600);
+
+  /** The last year in the table. */
+  static final long MAX_YEAR = yearFromSysProperty(MAX_YEAR_SYS_PROPERTY, 2600);
+
+  /**
+   The general algorithm, for any year.
+   With help from Robin O'Leary's algorithm: https://pdc.ro.nu/jd-code.html
+  */
+  static long daysBeforeGeneral(long y, Calendar calendar) {
+    //completed years: small asymmetry between positive and negative years
+    long y_p = (y >= 0) ? (y - 1) : y;  //y_p = y-prime
+    long num_366yrs = (y_p/4);
+    if (Calendar.GREGORIAN == calendar) {
+      num_366yrs -= (y_p/100);  // should this part be in the calendar?
+      num_366yrs += (y_p/calendar.fullCycleYears());
+    }
+    if (y > 0) {
+      num_366yrs += 1; //since year 0 is a leap year
+    }
+    long num_365yrs = y - num_366yrs;
+    return num_365yrs * SHORT_YEAR + num_366yrs * LONG_YEAR;
+  }
+
+  /**
+   The general algorithm, for any day.
+
+   <P>Mental model: use a 'base', a point in time occurring once every cycle of the calendar,
+   at which the calendar cycle starts. Counting forward in time from any such base exploits
+   the symmetry of the calendar's cycle.
+  */
+  static long yearContainingGeneral(long days, Calendar calendar) {
+    //1. find the closest base that PRECEDES the given day
+    long num_cycles = Math.floorDiv(days, (long)calendar.fullCycleDays()); //round towards neg infinity: good!
+    long year = num_cycles * calendar.fullCycleYears();
+    long days_minus_base = days - num_cycles * calendar.fullCycleDays(); //never neg
+    long cursor = 0; //points to a Jan 1.0 initially; approaches days_minus_base from below!
+
+    //2. remainder-years: whole, completed years after the base
+    //one big chunk of years: calculate a MINIMUM number of full remainder-years, to reduce loop iterations later
+    long more_years = (days_minus_base / LONG_YEAR) - 1; // at least this many
+    if (more_years > 0) {
+      long m_p = more_years - 1;
+      long more_days = more_years * SHORT_YEAR + (m_p/4) + 1;
+      if (Calendar.GREGORIAN == calendar) {
+        more_days = more_days - (m_p/100) + (m_p/400); //should this be in the calendar?
+      }
+      cursor += more_days; //still on a Jan 1.0!
+      year += more_years;
+    }
+    //loop to find the rest of the remaining-years: at most 2 iterations here!
+    long year_so_far = year; //for use in the loop
+    for(int more = 0; more < calendar.fullCycleYears(); ++more ) {
+      int year_length = calendar.numDaysIn(year_so_far + more);
+      if (cursor + year_length <= days_minus_base) {
+        cursor += year_length; // Jan 1.0 of the next year
+        ++year;
+      } else { break; }
+    }
+    return year;
+  }
+
+  /** Index 0 is MIN_YEAR. One extra entry at the end, for the year after MAX_YEAR. */
+  private static final long[] GREGORIAN_TABLE = buildTable(GREGORIAN);
+  private static final long[] JULIAN_TABLE = buildTable(JULIAN);
+
+  private static long[] table(Calendar calendar) {
+    return GREGORIAN == calendar ? GREGORIAN_TABLE : JULIAN_TABLE;
+  }
+
+  private static long[] buildTable(Calendar calendar) {
+    long[] res = new long[(int)Math.max(MAX_YEAR - MIN_YEAR + 2, 1)]; //an empty window if max < min
+    res[0] = daysBeforeGeneral(MIN_YEAR, calendar);
+    for(int i = 1; i < res.length; ++i) {
+      res[i] = res[i - 1] + calendar.numDaysIn(MIN_YEAR + i - 1);
+    }
+    return res;
+  }
+
+  /** Read a year from a System property, if present. Shared with {@link DateCache}. */
+  static long yearFromSysProperty(String name, long defaultValue) {
+    String override = System.getProperty(name);
+    if (!Check.textHasContent(override)) return defaultValue;
+    try {
+      return Long.valueOf(override.trim());
+    }
+    catch(NumberFormatException ex) {
+      throw new IllegalArgumentException("System property " + name + " should be an integer, but isn't: " + override);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package bigtime.when;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/** Unit tests. */
+public final class YearStartTableTEST {
+
+  /** The table agrees with the general algorithm, inside the window and just outside of it. */
+  @Test public void sameAsGeneralAlgorithm() {
+    for(Calendar calendar : Calendar.values()) {
+      for(long year = YearStartTable.MIN_YEAR - 5; year <= YearStartTable.MAX_YEAR + 5; ++year) {
+        long start = YearStartTable.daysBeforeGeneral(year, calendar);
+        assertEquals(start, YearStartTable.daysBefore(year, calendar));
+        
+        long end = start + calendar.numDaysIn(year) - 1;
+        assertEquals(year, YearStartTable.yearContaining(start, calendar));
+        assertEquals(year, YearStartTable.yearContaining(end, calendar));
+        assertEquals(year, YearStartTable.yearContainingGeneral(start, calendar));
+        assertEquals(year, YearStartTable.yearContainingGeneral(end, calendar));
+      }
+    }
+  }
+  
+  @Test public void smallYears() {
+    for(Calendar calendar : Calendar.values()) {
+      assertEquals(0, YearStartTable.daysBefore(0, calendar));
+      assertEquals(366, YearStartTable.daysBefore(1, calendar));
+      assertEquals(-365, YearStartTable.daysBefore(-1, calendar));
+      assertEquals(-365 * 3 - 366, YearStartTable.daysBefore(-4, calendar));
+      assertEquals(0, YearStartTable.yearContaining(0, calendar));
+      assertEquals(0, YearStartTable.yearContaining(365, calendar));
+      assertEquals(1, YearStartTable.yearContaining(366, calendar));
+      assertEquals(-1, YearStartTable.yearContaining(-1, calendar));
+      assertEquals(-1, YearStartTable.yearContaining(-365, calendar));
+      assertEquals(-2, YearStartTable.yearContaining(-366, calendar));
+    }
+  }
+  
+  @Test public void farFromTheWindow() {
+    for(Calendar calendar : Calendar.values()) {
+      for(long year : new long[] {-1_000_000_001L, -40_001, 40_000, 3_000_000_000_000L}) {
+        long start = YearStartTable.daysBefore(year, calendar);
+        assertEquals(year, YearStartTable.yearContaining(start, calendar));
+        assertEquals(year - 1, YearStartTable.yearContaining(start - 1, calendar));
+        assertEquals(start + calendar.numDaysIn(year), YearStartTable.daysBefore(year + 1, calendar));
+      }
+    }
+  }
+}